@@ -1,12 +1,20 @@
 package com.tradingsystem.config;
 
+import com.tradingsystem.idempotency.IdempotencyFilter;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.HeaderParameter;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springdoc.core.customizers.OperationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import java.util.Arrays;
 
 @Configuration
@@ -38,4 +46,25 @@ public class SwaggerConfig {
                                 .description("Staging Server")
                 ));
     }
+
+    /**
+     * Documents the optional {@code Idempotency-Key} header on every write operation.
+     */
+    @Bean
+    public OperationCustomizer idempotencyKeyHeader() {
+        return (operation, handlerMethod) -> {
+            if (handlerMethod.hasMethodAnnotation(PostMapping.class)
+                    || handlerMethod.hasMethodAnnotation(PutMapping.class)
+                    || handlerMethod.hasMethodAnnotation(PatchMapping.class)
+                    || handlerMethod.hasMethodAnnotation(DeleteMapping.class)) {
+                operation.addParametersItem(new HeaderParameter()
+                        .name(IdempotencyFilter.HEADER)
+                        .required(false)
+                        .description("Client-chosen key; retries with the same key replay the first response "
+                                + "(header Idempotent-Replayed: true). Reuse for a different request returns 422.")
+                        .schema(new StringSchema().maxLength(255)));
+            }
+            return operation;
+        };
+    }
 }
@@ -1,11 +1,20 @@
 package com.tradingsystem.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tradingsystem.dto.ProductImportResultDTO;
+import com.tradingsystem.dto.ProductLookupResultDTO;
 import com.tradingsystem.dto.TradingProductDTO;
+import com.tradingsystem.importer.ImportFormat;
+import com.tradingsystem.service.ProductImportService;
 import com.tradingsystem.service.TradingProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +23,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.List;
 
 @RestController
@@ -22,9 +35,17 @@ import java.util.List;
 @Tag(name = "Trading Products", description = "API endpoints for managing trading products (CRUD operations)")
 public class TradingProductController {
 
+    /**
+     * SQLSTATE of a unique-constraint violation on both PostgreSQL and H2.
+     */
+    private static final String UNIQUE_VIOLATION = "23505";
+
     @Autowired
     private TradingProductService service;
 
+    @Autowired
+    private ProductImportService importService;
+
     @PostMapping
     @Operation(summary = "Create a new trading product", 
                description = "Creates a new trading product with the provided details")
@@ -41,15 +62,81 @@ public class TradingProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import trading products",
+               description = "Streams CSV (with a header row) or NDJSON and upserts products by symbol. "
+                       + "Invalid rows are skipped and reported with their line number.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+        @Content(mediaType = "text/csv"),
+        @Content(mediaType = "application/x-ndjson")
+    })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished",
+                     content = @Content(mediaType = "application/json",
+                                       schema = @Schema(implementation = ProductImportResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Malformed header or unsupported input")
+    })
+    public ResponseEntity<ProductImportResultDTO> importProducts(HttpServletRequest request) throws IOException {
+        ImportFormat format = ImportFormat.fromMediaType(MediaType.parseMediaType(request.getContentType()));
+        Charset charset = request.getCharacterEncoding() == null
+                ? StandardCharsets.UTF_8
+                : Charset.forName(request.getCharacterEncoding());
+        ProductImportResultDTO result = importService.importProducts(request.getInputStream(), charset, format);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
     @Operation(summary = "Get all trading products", 
                description = "Retrieves a list of all available trading products")
     @ApiResponse(responseCode = "200", description = "List of products retrieved successfully")
-    public ResponseEntity<List<TradingProductDTO>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @Parameter(description = "Comma-separated fields to return; all fields when omitted", example = "id,symbol,price")
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getAllProducts(fields));
+        }
         List<TradingProductDTO> products = service.getAllProducts();
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get products by IDs",
+               description = "Retrieves up to " + TradingProductService.MAX_LOOKUP_KEYS + " products by id in one call. "
+                       + "Products are returned in request order; ids without a product are listed under missing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup completed"),
+        @ApiResponse(responseCode = "400", description = "Too many ids or unknown fields")
+    })
+    public ResponseEntity<ProductLookupResultDTO<?, Long>> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs", required = true, example = "1,2,3")
+            @RequestParam List<Long> ids,
+            @Parameter(description = "Comma-separated fields to return; all fields when omitted", example = "id,symbol,price")
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getProductsByIds(ids, fields));
+        }
+        return ResponseEntity.ok(service.getProductsByIds(ids));
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Get products by symbols",
+               description = "Retrieves up to " + TradingProductService.MAX_LOOKUP_KEYS + " products by trading symbol in one call. "
+                       + "Products are returned in request order; unknown symbols are listed under missing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup completed"),
+        @ApiResponse(responseCode = "400", description = "Too many symbols or unknown fields")
+    })
+    public ResponseEntity<ProductLookupResultDTO<?, String>> lookupBySymbols(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Trading symbols", required = true)
+            @RequestBody List<String> symbols,
+            @Parameter(description = "Comma-separated fields to return; all fields when omitted", example = "id,symbol,price")
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getProductsBySymbols(symbols, fields));
+        }
+        return ResponseEntity.ok(service.getProductsBySymbols(symbols));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", 
                description = "Retrieves a specific trading product by its unique identifier")
@@ -59,9 +146,14 @@ public class TradingProductController {
                                        schema = @Schema(implementation = TradingProductDTO.class))),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<TradingProductDTO> getProductById(
+    public ResponseEntity<?> getProductById(
             @Parameter(description = "Product ID", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return; all fields when omitted", example = "id,symbol,price")
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getProductById(id, fields));
+        }
         TradingProductDTO product = service.getProductById(id);
         return ResponseEntity.ok(product);
     }
@@ -75,9 +167,14 @@ public class TradingProductController {
                                        schema = @Schema(implementation = TradingProductDTO.class))),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<TradingProductDTO> getProductBySymbol(
+    public ResponseEntity<?> getProductBySymbol(
             @Parameter(description = "Trading symbol", required = true, example = "AAPL")
-            @PathVariable String symbol) {
+            @PathVariable String symbol,
+            @Parameter(description = "Comma-separated fields to return; all fields when omitted", example = "id,symbol,price")
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getProductBySymbol(symbol, fields));
+        }
         TradingProductDTO product = service.getProductBySymbol(symbol);
         return ResponseEntity.ok(product);
     }
@@ -86,9 +183,14 @@ public class TradingProductController {
     @Operation(summary = "Get products by category", 
                description = "Retrieves all trading products in a specific category")
     @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
-    public ResponseEntity<List<TradingProductDTO>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @Parameter(description = "Product category", required = true, example = "STOCKS")
-            @PathVariable String category) {
+            @PathVariable String category,
+            @Parameter(description = "Comma-separated fields to return; all fields when omitted", example = "id,symbol,price")
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getProductsByCategory(category, fields));
+        }
         List<TradingProductDTO> products = service.getProductsByCategory(category);
         return ResponseEntity.ok(products);
     }
@@ -111,6 +213,24 @@ public class TradingProductController {
         return ResponseEntity.ok(updated);
     }
 
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update a trading product",
+               description = "Applies a JSON Merge Patch; only the fields present are updated")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product updated successfully",
+                     content = @Content(mediaType = "application/json",
+                                       schema = @Schema(implementation = TradingProductDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown field, removed field or invalid value"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<TradingProductDTO> patchProduct(
+            @Parameter(description = "Product ID", required = true, example = "1")
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        TradingProductDTO patched = service.patchProduct(id, patch);
+        return ResponseEntity.ok(patched);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a trading product", 
                description = "Deletes a trading product from the system")
@@ -132,4 +252,35 @@ public class TradingProductController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Trading System is running");
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /**
+     * A unique-constraint violation is a conflict with an existing product; any other integrity
+     * violation (a missing or oversized value) is a bad request.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleConflict(DataIntegrityViolationException ex) {
+        if (ex instanceof DuplicateKeyException || isUniqueViolation(ex)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Product name and symbol must be unique");
+        }
+        return ResponseEntity.badRequest().body("Product violates a database constraint");
+    }
+
+    private static boolean isUniqueViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (!(cause instanceof SQLException sql)) {
+                continue;
+            }
+            for (SQLException next = sql; next != null; next = next.getNextException()) {
+                if (UNIQUE_VIOLATION.equals(next.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,132 @@
+package com.tradingsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk product import")
+public class ProductImportResultDTO {
+
+    @Schema(description = "Input format of the import", example = "CSV")
+    private String format;
+
+    @Schema(description = "Number of data rows read from the stream", example = "250000")
+    private long rowsRead;
+
+    @Schema(description = "Number of rows inserted or updated", example = "249990")
+    private long rowsImported;
+
+    @Schema(description = "Number of rows rejected", example = "10")
+    private long rowsRejected;
+
+    @Schema(description = "Total import time in milliseconds", example = "41250")
+    private long elapsedMillis;
+
+    @Schema(description = "Average throughput in rows per second", example = "6060.6")
+    private double rowsPerSecond;
+
+    @Schema(description = "Rejected rows, truncated to the first reported rejects")
+    private List<RowReject> rejects = new ArrayList<>();
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<RowReject> getRejects() {
+        return rejects;
+    }
+
+    public void setRejects(List<RowReject> rejects) {
+        this.rejects = rejects;
+    }
+
+    @Schema(description = "A row that was not imported")
+    public static class RowReject {
+
+        @Schema(description = "Line number of the row in the import stream", example = "42")
+        private long line;
+
+        @Schema(description = "Symbol of the rejected row, if it could be read", example = "AAPL")
+        private String symbol;
+
+        @Schema(description = "Reason the row was rejected", example = "Duplicate symbol in import: AAPL")
+        private String reason;
+
+        public RowReject() {
+        }
+
+        public RowReject(long line, String symbol, String reason) {
+            this.line = line;
+            this.symbol = symbol;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public void setSymbol(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
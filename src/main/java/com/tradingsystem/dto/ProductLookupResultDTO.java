@@ -0,0 +1,43 @@
+package com.tradingsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a multi-get. {@code T} is the product representation: {@link TradingProductDTO}, or
+ * an attribute map when the request selects {@code fields}.
+ */
+@Schema(description = "Result of a multi-get: found products in request order plus the keys that matched nothing")
+public class ProductLookupResultDTO<T, K> {
+
+    @Schema(description = "Products found, in the order their keys were requested")
+    private List<T> products = new ArrayList<>();
+
+    @Schema(description = "Requested keys with no matching product")
+    private List<K> missing = new ArrayList<>();
+
+    public ProductLookupResultDTO() {
+    }
+
+    public ProductLookupResultDTO(List<T> products, List<K> missing) {
+        this.products = products;
+        this.missing = missing;
+    }
+
+    public List<T> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<T> products) {
+        this.products = products;
+    }
+
+    public List<K> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<K> missing) {
+        this.missing = missing;
+    }
+}
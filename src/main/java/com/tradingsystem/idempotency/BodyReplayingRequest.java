@@ -0,0 +1,119 @@
+package com.tradingsystem.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the request body from a stream the filter has already (partly) consumed.
+ */
+class BodyReplayingRequest extends HttpServletRequestWrapper {
+
+    private final ReplayingInputStream inputStream;
+
+    /**
+     * Replays a body the filter has read completely.
+     */
+    BodyReplayingRequest(HttpServletRequest request, byte[] body) {
+        super(request);
+        this.inputStream = new ReplayingInputStream(new ByteArrayInputStream(body), true);
+    }
+
+    /**
+     * Replays the part of the body the filter has read, followed by the rest of the original stream.
+     */
+    BodyReplayingRequest(HttpServletRequest request, byte[] head, InputStream rest) {
+        super(request);
+        this.inputStream = new ReplayingInputStream(new SequenceInputStream(new ByteArrayInputStream(head), rest), false);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        return new BufferedReader(new InputStreamReader(inputStream, charset));
+    }
+
+    private static class ReplayingInputStream extends ServletInputStream {
+
+        private final InputStream body;
+        private final boolean buffered;
+        private long position;
+        private boolean finished;
+
+        ReplayingInputStream(InputStream body, boolean buffered) {
+            this.body = body;
+            this.buffered = buffered;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int next = body.read();
+            finished = next < 0;
+            if (!finished) {
+                position++;
+            }
+            return next;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = body.read(buffer, offset, length);
+            finished = read < 0;
+            if (!finished) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            try {
+                // An in-memory body knows when it is used up; a streamed one only once a read hits the end.
+                return finished || buffered && body.available() == 0;
+            } catch (IOException e) {
+                return finished;
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * Nothing is ever waited for, so the listener is called until it has read the whole body,
+         * then told that all data was read. A listener that stops reading is not called again,
+         * just as a container would not call it without new data.
+         */
+        @Override
+        public void setReadListener(ReadListener listener) {
+            try {
+                while (!isFinished()) {
+                    long before = position;
+                    listener.onDataAvailable();
+                    if (position == before && !isFinished()) {
+                        return;
+                    }
+                }
+                listener.onAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                listener.onError(e);
+            }
+        }
+    }
+}
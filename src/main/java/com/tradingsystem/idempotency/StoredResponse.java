@@ -0,0 +1,44 @@
+package com.tradingsystem.idempotency;
+
+import java.time.Instant;
+
+/**
+ * A response recorded for an idempotency key, together with the fingerprint of the request
+ * that produced it.
+ */
+public class StoredResponse {
+
+    private final String fingerprint;
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final Instant createdAt;
+
+    public StoredResponse(String fingerprint, int status, String contentType, byte[] body, Instant createdAt) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,146 @@
+package com.tradingsystem.importer;
+
+import com.tradingsystem.dto.TradingProductDTO;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 style CSV with a header row naming the product columns
+ * ({@code name, description, price, quantity, category, symbol}). Column order is free
+ * and unknown columns are ignored. Quoted fields may contain commas, escaped quotes and newlines.
+ * <p>
+ * A quoted field left open swallows the rest of the stream, so it is reported as a malformed row
+ * and reading stops there; the rows before it are still imported.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+    private static final String[] REQUIRED_COLUMNS = {"name", "description", "price", "quantity", "category", "symbol"};
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+    private long recordStartLine;
+    private boolean exhausted;
+
+    public CsvProductRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import is empty, a header row is required");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (exhausted) {
+            return null;
+        }
+        List<String> record;
+        do {
+            try {
+                record = readRecord();
+            } catch (IllegalArgumentException e) {
+                exhausted = true;
+                return ImportRow.malformed(recordStartLine, e.getMessage());
+            }
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        long recordLine = recordStartLine;
+        try {
+            TradingProductDTO dto = new TradingProductDTO();
+            dto.setName(field(record, "name"));
+            dto.setDescription(field(record, "description"));
+            String price = field(record, "price");
+            dto.setPrice(price == null ? null : new BigDecimal(price));
+            String quantity = field(record, "quantity");
+            dto.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+            dto.setCategory(field(record, "category"));
+            dto.setSymbol(field(record, "symbol"));
+            return ImportRow.parsed(recordLine, dto);
+        } catch (NumberFormatException e) {
+            return ImportRow.malformed(recordLine, "Invalid number: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> record, String column) {
+        int index = columns.get(column);
+        if (index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads the next logical record, following quoted fields across physical lines.
+     */
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        recordStartLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            current.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                throw new IllegalArgumentException("Unterminated quoted field starting at line " + recordStartLine);
+            }
+            lineNumber++;
+            current.append('\n');
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,40 @@
+package com.tradingsystem.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Stream formats accepted by the bulk import endpoint.
+ */
+public enum ImportFormat {
+
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    ImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public ProductRowReader open(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        return this == CSV
+                ? new CsvProductRowReader(reader)
+                : new NdjsonProductRowReader(reader, objectMapper);
+    }
+
+    public static ImportFormat fromMediaType(MediaType contentType) {
+        for (ImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
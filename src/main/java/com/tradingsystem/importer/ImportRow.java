@@ -0,0 +1,43 @@
+package com.tradingsystem.importer;
+
+import com.tradingsystem.dto.TradingProductDTO;
+
+/**
+ * A single row read from a bulk import stream, either parsed into a product or marked malformed.
+ */
+public class ImportRow {
+
+    private final long lineNumber;
+    private final TradingProductDTO product;
+    private final String error;
+
+    private ImportRow(long lineNumber, TradingProductDTO product, String error) {
+        this.lineNumber = lineNumber;
+        this.product = product;
+        this.error = error;
+    }
+
+    public static ImportRow parsed(long lineNumber, TradingProductDTO product) {
+        return new ImportRow(lineNumber, product, null);
+    }
+
+    public static ImportRow malformed(long lineNumber, String error) {
+        return new ImportRow(lineNumber, null, error);
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public TradingProductDTO getProduct() {
+        return product;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isMalformed() {
+        return error != null;
+    }
+}
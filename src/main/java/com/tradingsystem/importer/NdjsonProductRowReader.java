@@ -0,0 +1,44 @@
+package com.tradingsystem.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradingsystem.dto.TradingProductDTO;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads one JSON product object per line. Blank lines are skipped.
+ */
+public class NdjsonProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    public NdjsonProductRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                return ImportRow.parsed(lineNumber, objectMapper.readValue(line, TradingProductDTO.class));
+            } catch (JsonProcessingException e) {
+                return ImportRow.malformed(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
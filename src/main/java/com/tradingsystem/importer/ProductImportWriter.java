@@ -0,0 +1,318 @@
+package com.tradingsystem.importer;
+
+import com.tradingsystem.dto.ProductImportResultDTO.RowReject;
+import com.tradingsystem.dto.TradingProductDTO;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes validated import rows in chunks, one transaction per chunk. On PostgreSQL rows are
+ * streamed with {@code COPY} into a session-local staging table and merged with a single
+ * {@code INSERT ... ON CONFLICT (symbol)}; other databases (H2) fall back to JDBC batches.
+ * <p>
+ * If the set-based write still hits a unique constraint (renames within a chunk that the merge
+ * applies in the wrong order, or a concurrent write), the chunk is rolled back to a savepoint and
+ * written row by row, and the rows that cannot be written are rejected instead of failing the import.
+ */
+@Component
+public class ProductImportWriter {
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS trading_products_import ("
+                    + "line_no BIGINT, name VARCHAR(255), description TEXT, price NUMERIC, "
+                    + "quantity INTEGER, category VARCHAR(255), symbol VARCHAR(255)) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_SQL =
+            "COPY trading_products_import (line_no, name, description, price, quantity, category, symbol) "
+                    + "FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Rejects rows taking the name of another product, unless that product is renamed by the
+     * same chunk.
+     */
+    private static final String REJECT_NAME_CONFLICTS_SQL =
+            "DELETE FROM trading_products_import s USING trading_products p "
+                    + "WHERE p.name = s.name AND p.symbol <> s.symbol "
+                    + "AND NOT EXISTS (SELECT 1 FROM trading_products_import r WHERE r.symbol = p.symbol) "
+                    + "RETURNING s.line_no, s.symbol, p.symbol";
+
+    private static final String MERGE_SQL =
+            "INSERT INTO trading_products (name, description, price, quantity, category, symbol, created_at, updated_at) "
+                    + "SELECT name, description, price, quantity, category, symbol, LOCALTIMESTAMP, LOCALTIMESTAMP "
+                    + "FROM trading_products_import "
+                    + "ON CONFLICT (symbol) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, "
+                    + "price = EXCLUDED.price, quantity = EXCLUDED.quantity, category = EXCLUDED.category, "
+                    + "updated_at = EXCLUDED.updated_at";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO trading_products (name, description, price, quantity, category, symbol, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE trading_products SET name = ?, description = ?, price = ?, quantity = ?, category = ?, updated_at = ? "
+                    + "WHERE symbol = ?";
+
+    private static final String NAME_OWNER_SQL = "SELECT symbol FROM trading_products WHERE name = ? AND symbol <> ?";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Writes one chunk of rows and returns how many were inserted or updated. Rows that
+     * conflict with an existing product name are reported to {@code rejects} and skipped.
+     */
+    public long write(List<ImportRow> rows, Consumer<RowReject> rejects) {
+        List<RowReject> chunkRejects = new ArrayList<>();
+        Long imported = transactionTemplate.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    boolean copy = isPostgres(connection);
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        return copy
+                                ? copyAndMerge(connection, rows, chunkRejects::add)
+                                : batchUpsert(connection, rows, chunkRejects::add);
+                    } catch (SQLException e) {
+                        if (!isUniqueViolation(e)) {
+                            throw e;
+                        }
+                        connection.rollback(savepoint);
+                        chunkRejects.clear();
+                        return upsertEach(connection, rows, chunkRejects::add);
+                    }
+                }));
+        // Reported only once the chunk committed, so a rolled-back attempt reports nothing.
+        chunkRejects.forEach(rejects);
+        return imported == null ? 0 : imported;
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        }
+        return postgres;
+    }
+
+    private long copyAndMerge(Connection connection, List<ImportRow> rows, Consumer<RowReject> rejects)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING_SQL);
+        }
+
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (ImportRow row : rows) {
+            TradingProductDTO product = row.getProduct();
+            csv.append(row.getLineNumber()).append(',');
+            appendQuoted(csv, product.getName()).append(',');
+            appendQuoted(csv, product.getDescription()).append(',');
+            csv.append(product.getPrice().toPlainString()).append(',');
+            csv.append(product.getQuantity()).append(',');
+            appendQuoted(csv, product.getCategory()).append(',');
+            appendQuoted(csv, product.getSymbol()).append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into import staging table failed", e);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet conflicts = statement.executeQuery(REJECT_NAME_CONFLICTS_SQL)) {
+                while (conflicts.next()) {
+                    rejects.accept(new RowReject(conflicts.getLong(1), conflicts.getString(2),
+                            "Product name already used by symbol " + conflicts.getString(3)));
+                }
+            }
+            return statement.executeUpdate(MERGE_SQL);
+        }
+    }
+
+    private long batchUpsert(Connection connection, List<ImportRow> rows, Consumer<RowReject> rejects)
+            throws SQLException {
+        Map<String, String> nameOwners = new HashMap<>();
+        Map<String, String> existingSymbols = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        String lookupSql = "SELECT name, symbol FROM trading_products WHERE symbol IN (" + placeholders
+                + ") OR name IN (" + placeholders + ")";
+        try (PreparedStatement lookup = connection.prepareStatement(lookupSql)) {
+            for (int i = 0; i < rows.size(); i++) {
+                lookup.setString(i + 1, rows.get(i).getProduct().getSymbol());
+                lookup.setString(rows.size() + i + 1, rows.get(i).getProduct().getName());
+            }
+            try (ResultSet existing = lookup.executeQuery()) {
+                while (existing.next()) {
+                    nameOwners.put(existing.getString(1), existing.getString(2));
+                    existingSymbols.put(existing.getString(2), existing.getString(1));
+                }
+            }
+        }
+
+        List<TradingProductDTO> inserts = new ArrayList<>();
+        List<TradingProductDTO> updates = new ArrayList<>();
+        for (ImportRow row : rows) {
+            TradingProductDTO product = row.getProduct();
+            String owner = nameOwners.get(product.getName());
+            if (owner != null && !owner.equals(product.getSymbol())) {
+                rejects.accept(new RowReject(row.getLineNumber(), product.getSymbol(),
+                        "Product name already used by symbol " + owner));
+                continue;
+            }
+            String previousName = existingSymbols.get(product.getSymbol());
+            if (previousName != null) {
+                // A renamed product frees its old name for later rows of the chunk.
+                nameOwners.remove(previousName, product.getSymbol());
+            }
+            nameOwners.put(product.getName(), product.getSymbol());
+            (previousName != null ? updates : inserts).add(product);
+        }
+
+        // Updates run first and in row order, so a name is always freed before it is taken.
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!updates.isEmpty()) {
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+                for (TradingProductDTO product : updates) {
+                    bindUpdate(update, product, now);
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        }
+        if (!inserts.isEmpty()) {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                for (TradingProductDTO product : inserts) {
+                    bindInsert(insert, product, now);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        return inserts.size() + updates.size();
+    }
+
+    /**
+     * Writes the rows one at a time, each under its own savepoint. Rows hitting a unique
+     * constraint are retried after the others, since a later row may free the name they
+     * need, and rejected once a pass makes no progress.
+     */
+    private long upsertEach(Connection connection, List<ImportRow> rows, Consumer<RowReject> rejects)
+            throws SQLException {
+        List<ImportRow> pending = new ArrayList<>(rows);
+        long written = 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            boolean progress = true;
+            while (progress && !pending.isEmpty()) {
+                progress = false;
+                for (Iterator<ImportRow> remaining = pending.iterator(); remaining.hasNext(); ) {
+                    TradingProductDTO product = remaining.next().getProduct();
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        bindUpdate(update, product, now);
+                        if (update.executeUpdate() == 0) {
+                            bindInsert(insert, product, now);
+                            insert.executeUpdate();
+                        }
+                        connection.releaseSavepoint(savepoint);
+                    } catch (SQLException e) {
+                        if (!isUniqueViolation(e)) {
+                            throw e;
+                        }
+                        connection.rollback(savepoint);
+                        continue;
+                    }
+                    remaining.remove();
+                    written++;
+                    progress = true;
+                }
+            }
+        }
+        for (ImportRow row : pending) {
+            rejects.accept(new RowReject(row.getLineNumber(), row.getProduct().getSymbol(),
+                    conflictReason(connection, row.getProduct())));
+        }
+        return written;
+    }
+
+    private static String conflictReason(Connection connection, TradingProductDTO product) throws SQLException {
+        try (PreparedStatement owner = connection.prepareStatement(NAME_OWNER_SQL)) {
+            owner.setString(1, product.getName());
+            owner.setString(2, product.getSymbol());
+            try (ResultSet rows = owner.executeQuery()) {
+                if (rows.next()) {
+                    return "Product name already used by symbol " + rows.getString(1);
+                }
+            }
+        }
+        return "Product name or symbol was taken by a concurrent write";
+    }
+
+    private static void bindInsert(PreparedStatement insert, TradingProductDTO product, Timestamp now)
+            throws SQLException {
+        insert.setString(1, product.getName());
+        insert.setString(2, product.getDescription());
+        insert.setBigDecimal(3, product.getPrice());
+        insert.setInt(4, product.getQuantity());
+        insert.setString(5, product.getCategory());
+        insert.setString(6, product.getSymbol());
+        insert.setTimestamp(7, now);
+        insert.setTimestamp(8, now);
+    }
+
+    private static void bindUpdate(PreparedStatement update, TradingProductDTO product, Timestamp now)
+            throws SQLException {
+        update.setString(1, product.getName());
+        update.setString(2, product.getDescription());
+        update.setBigDecimal(3, product.getPrice());
+        update.setInt(4, product.getQuantity());
+        update.setString(5, product.getCategory());
+        update.setTimestamp(6, now);
+        update.setString(7, product.getSymbol());
+    }
+
+    /**
+     * Both PostgreSQL and H2 report unique constraint violations as SQLSTATE 23505; batch
+     * failures carry it on a chained exception.
+     */
+    private static boolean isUniqueViolation(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            for (Throwable cause = current; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,15 @@
+package com.tradingsystem.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Incrementally reads products from an import stream, one row at a time.
+ */
+public interface ProductRowReader extends Closeable {
+
+    /**
+     * Returns the next row, or {@code null} once the stream is exhausted.
+     */
+    ImportRow next() throws IOException;
+}
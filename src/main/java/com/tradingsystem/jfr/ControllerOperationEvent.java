@@ -0,0 +1,45 @@
+package com.tradingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A request handled by {@code TradingProductController}, from handler selection until the
+ * response body is written.
+ */
+@Name("trading.ControllerOperation")
+@Label("Product Controller Operation")
+@Description("HTTP request handled by TradingProductController")
+@Category({"Trading", "Products"})
+@Enabled(false)
+@StackTrace(false)
+class ControllerOperationEvent extends ProductOperationEvent {
+
+    @Label("HTTP Status")
+    int status;
+
+    @Label("Serialization Time")
+    @Description("Time spent converting and writing the response body")
+    @Timespan
+    long serializationTime;
+
+    private transient long bodyWriteStart;
+
+    void bodyWriting(Object body) {
+        rows = rowsOf(body);
+        bodyWriteStart = System.nanoTime();
+    }
+
+    void complete(int status, boolean failed) {
+        if (bodyWriteStart != 0) {
+            serializationTime = System.nanoTime() - bodyWriteStart;
+        }
+        this.status = status;
+        finish(failed);
+    }
+}
@@ -0,0 +1,161 @@
+package com.tradingsystem.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the {@code trading.*} events of a JFR recording into per-operation latency
+ * percentiles and histograms. Depends on the JDK only, so it runs straight from source:
+ * <pre>
+ * java src/main/java/com/tradingsystem/jfr/JfrRecordingAnalyzer.java recording.jfr [filter]
+ * </pre>
+ * The optional filter keeps only entries whose name, e.g. {@code ServiceOperation getProductById},
+ * contains it.
+ */
+public final class JfrRecordingAnalyzer {
+
+    private static final String EVENT_PREFIX = "trading.";
+
+    /**
+     * Histogram bucket upper bounds in microseconds; the last bucket is open-ended.
+     */
+    private static final long[] BUCKET_BOUNDS_MICROS =
+            {100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000};
+
+    private static final int BAR_WIDTH = 40;
+
+    private JfrRecordingAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: JfrRecordingAnalyzer <recording.jfr> [filter]");
+            System.exit(2);
+        }
+        Path recording = Path.of(args[0]);
+        if (!Files.isReadable(recording)) {
+            System.err.println("Cannot read " + recording);
+            System.exit(1);
+        }
+        Map<String, OperationStats> stats = read(recording, args.length == 2 ? args[1] : null);
+        if (stats.isEmpty()) {
+            System.out.println("No " + EVENT_PREFIX + "* events in " + recording
+                    + "; record with -XX:StartFlightRecording:settings=<path to trading.jfc>");
+            return;
+        }
+        stats.values().forEach(operation -> operation.print(System.out));
+    }
+
+    static Map<String, OperationStats> read(Path recording, String filter) throws IOException {
+        Map<String, OperationStats> stats = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (!type.startsWith(EVENT_PREFIX)) {
+                    continue;
+                }
+                String name = type.substring(EVENT_PREFIX.length()) + " " + event.getString("operation");
+                if (filter != null && !name.contains(filter)) {
+                    continue;
+                }
+                stats.computeIfAbsent(name, OperationStats::new).add(event);
+            }
+        }
+        return stats;
+    }
+
+    static final class OperationStats {
+
+        private final String name;
+        private long[] durations = new long[64];
+        private int count;
+        private int failed;
+        private long rows;
+        private long statements;
+        private long dbNanos;
+        private long serializationNanos;
+        private boolean serialized;
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos();
+            if (event.getBoolean("failed")) {
+                failed++;
+            }
+            rows += event.getLong("rows");
+            statements += event.getInt("statements");
+            dbNanos += event.getDuration("dbTime").toNanos();
+            if (event.hasField("serializationTime")) {
+                serialized = true;
+                serializationNanos += event.getDuration("serializationTime").toNanos();
+            }
+        }
+
+        void print(PrintStream out) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long duration : sorted) {
+                total += duration;
+            }
+            out.printf("%s%n", name);
+            out.printf("  count %d (%d failed)  mean %s  p50 %s  p90 %s  p99 %s  max %s%n",
+                    count, failed, millis(total / count), millis(percentile(sorted, 50)),
+                    millis(percentile(sorted, 90)), millis(percentile(sorted, 99)), millis(sorted[count - 1]));
+            out.printf("  per call: %.1f rows, %.1f statements, db %s%s%n",
+                    rows / (double) count, statements / (double) count, millis(dbNanos / count),
+                    serialized ? ", serialization " + millis(serializationNanos / count) : "");
+
+            int[] buckets = new int[BUCKET_BOUNDS_MICROS.length + 1];
+            for (long duration : sorted) {
+                int bucket = 0;
+                while (bucket < BUCKET_BOUNDS_MICROS.length && duration > BUCKET_BOUNDS_MICROS[bucket] * 1_000) {
+                    bucket++;
+                }
+                buckets[bucket]++;
+            }
+            int largest = Arrays.stream(buckets).max().orElse(1);
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                if (buckets[bucket] == 0) {
+                    continue;
+                }
+                String label = bucket < BUCKET_BOUNDS_MICROS.length
+                        ? "<= " + micros(BUCKET_BOUNDS_MICROS[bucket])
+                        : " > " + micros(BUCKET_BOUNDS_MICROS[bucket - 1]);
+                int width = Math.max(1, buckets[bucket] * BAR_WIDTH / largest);
+                out.printf("  %10s |%-" + BAR_WIDTH + "s| %d%n", label, "#".repeat(width), buckets[bucket]);
+            }
+            out.println();
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.3f ms", nanos / 1_000_000.0);
+        }
+
+        private static String micros(long micros) {
+            if (micros < 1_000) {
+                return micros + " us";
+            }
+            return micros % 1_000 == 0 ? micros / 1_000 + " ms" : String.format("%.1f ms", micros / 1_000.0);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tradingsystem.jfr;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class JfrWebConfiguration implements WebMvcConfigurer {
+
+    private final ControllerEventRecorder controllerEventRecorder;
+
+    public JfrWebConfiguration(ControllerEventRecorder controllerEventRecorder) {
+        this.controllerEventRecorder = controllerEventRecorder;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(controllerEventRecorder);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tradingsystem.jfr;
+
+import com.tradingsystem.repository.TradingProductRepository;
+import com.tradingsystem.service.TradingProductService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import java.util.function.Supplier;
+
+/**
+ * Adds JFR event emission to the {@link TradingProductService} and Spring Data
+ * {@link TradingProductRepository} proxies. The interceptor goes first in the advice chain, so
+ * service events include the transaction commit.
+ */
+@Component
+public class OperationEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            if (bean instanceof TradingProductService) {
+                advised.addAdvice(0, new OperationEventInterceptor(ServiceOperationEvent::new));
+            } else if (bean instanceof TradingProductRepository) {
+                advised.addAdvice(0, new OperationEventInterceptor(RepositoryOperationEvent::new));
+            }
+        }
+        return bean;
+    }
+
+    private static final class OperationEventInterceptor implements MethodInterceptor {
+
+        private final Supplier<ProductOperationEvent> events;
+
+        OperationEventInterceptor(Supplier<ProductOperationEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            ProductOperationEvent event = events.get();
+            if (!event.isEnabled() || invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            Object[] arguments = invocation.getArguments();
+            event.start(invocation.getMethod().getName(), arguments.length > 0 ? arguments[0] : null);
+            boolean failed = true;
+            try {
+                Object result = invocation.proceed();
+                event.rows = ProductOperationEvent.rowsOf(result);
+                failed = false;
+                return result;
+            } finally {
+                event.finish(failed);
+            }
+        }
+    }
+}
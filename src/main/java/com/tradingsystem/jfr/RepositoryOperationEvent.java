@@ -0,0 +1,20 @@
+package com.tradingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@code TradingProductRepository} call.
+ */
+@Name("trading.RepositoryOperation")
+@Label("Product Repository Operation")
+@Description("TradingProductRepository method call")
+@Category({"Trading", "Products"})
+@Enabled(false)
+@StackTrace(false)
+class RepositoryOperationEvent extends ProductOperationEvent {
+}
@@ -0,0 +1,20 @@
+package com.tradingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@code TradingProductService} call, including its transaction commit.
+ */
+@Name("trading.ServiceOperation")
+@Label("Product Service Operation")
+@Description("TradingProductService method call")
+@Category({"Trading", "Products"})
+@Enabled(false)
+@StackTrace(false)
+class ServiceOperationEvent extends ProductOperationEvent {
+}
@@ -2,11 +2,13 @@ package com.tradingsystem.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "trading_products")
+@DynamicUpdate
 public class TradingProduct {
 
     @Id
@@ -0,0 +1,45 @@
+package com.tradingsystem.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that exceeded the slow query threshold, as reported by {@code /actuator/slowqueries}.
+ */
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final String requestUri;
+    private final String sql;
+    private final List<Object> parameters;
+    private final double elapsedMillis;
+
+    public SlowQuery(Instant executedAt, String requestUri, String sql, List<Object> parameters,
+                     double elapsedMillis) {
+        this.executedAt = executedAt;
+        this.requestUri = requestUri;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
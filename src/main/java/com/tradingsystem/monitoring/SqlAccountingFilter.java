@@ -0,0 +1,78 @@
+package com.tradingsystem.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link SqlStatistics} scope per HTTP request and, once the response is complete,
+ * logs and publishes the statement count, rows fetched and JDBC time. Requests executing more
+ * than {@code trading.sql.max-statements-per-request} statements are flagged as likely N+1.
+ */
+@Component
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlAccountingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatementsPerRequest;
+
+    public SqlAccountingFilter(MeterRegistry meterRegistry,
+                               @Value("${trading.sql.max-statements-per-request:20}") int maxStatementsPerRequest) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatistics.clear();
+            report(request, response, statistics);
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlStatistics statistics) {
+        if (statistics.getStatements() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("sql.request.statements").tags(tags).register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("sql.request.rows").tags(tags).register(meterRegistry)
+                .record(statistics.getRowsFetched());
+        Timer.builder("sql.request.jdbc.time").tags(tags).register(meterRegistry)
+                .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        log.info("{} -> {}: {} statements, {} rows, {} ms JDBC", statistics.getRequestUri(), response.getStatus(),
+                statistics.getStatements(), statistics.getRowsFetched(), statistics.getJdbcNanos() / 1_000_000);
+
+        if (statistics.getStatements() > maxStatementsPerRequest) {
+            Counter.builder("sql.request.excessive").tags(tags).register(meterRegistry).increment();
+            Map.Entry<String, Integer> repeated = statistics.getMostRepeatedStatement();
+            log.warn("Possible N+1 in {}: {} statements (limit {}), most repeated {}x: {}",
+                    statistics.getRequestUri(), statistics.getStatements(), maxStatementsPerRequest,
+                    repeated.getValue(), repeated.getKey());
+        }
+    }
+}
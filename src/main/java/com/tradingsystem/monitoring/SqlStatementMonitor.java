@@ -0,0 +1,77 @@
+package com.tradingsystem.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Receives every statement executed through the instrumented {@code DataSource}. Adds it to
+ * the current request's {@link SqlStatistics} and keeps the slowest statements above
+ * {@code trading.sql.slow-threshold-ms} since the last reset, in a min-heap bounded to
+ * {@code trading.sql.slow-query-capacity} so a burst of moderately slow statements cannot push
+ * out the real outliers.
+ */
+@Component
+public class SqlStatementMonitor {
+
+    private static final Comparator<SlowQuery> BY_ELAPSED = Comparator.comparingDouble(SlowQuery::getElapsedMillis);
+
+    private final long slowThresholdNanos;
+    private final int capacity;
+    private final PriorityQueue<SlowQuery> slowQueries;
+
+    public SqlStatementMonitor(@Value("${trading.sql.slow-threshold-ms:100}") long slowThresholdMillis,
+                               @Value("${trading.sql.slow-query-capacity:100}") int capacity) {
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+        this.capacity = capacity;
+        this.slowQueries = new PriorityQueue<>(capacity + 1, BY_ELAPSED);
+    }
+
+    public void statementExecuted(String sql, List<Object> parameters, long nanos) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(sql, nanos);
+        }
+        if (nanos >= slowThresholdNanos && capacity > 0) {
+            String requestUri = statistics == null ? null : statistics.getRequestUri();
+            SlowQuery slowQuery = new SlowQuery(Instant.now(), requestUri, sql, parameters, nanos / 1_000_000.0);
+            synchronized (slowQueries) {
+                if (slowQueries.size() < capacity) {
+                    slowQueries.add(slowQuery);
+                } else if (BY_ELAPSED.compare(slowQuery, slowQueries.peek()) > 0) {
+                    slowQueries.poll();
+                    slowQueries.add(slowQuery);
+                }
+            }
+        }
+    }
+
+    public void rowFetched() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordRow();
+        }
+    }
+
+    /**
+     * Returns the buffered slow statements, slowest first.
+     */
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> snapshot;
+        synchronized (slowQueries) {
+            snapshot = new ArrayList<>(slowQueries);
+        }
+        snapshot.sort(BY_ELAPSED.reversed());
+        return snapshot;
+    }
+
+    public void reset() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+}
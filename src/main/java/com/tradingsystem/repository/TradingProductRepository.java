@@ -2,13 +2,26 @@ package com.tradingsystem.repository;
 
 import com.tradingsystem.model.TradingProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface TradingProductRepository extends JpaRepository<TradingProduct, Long> {
+public interface TradingProductRepository extends JpaRepository<TradingProduct, Long>, TradingProductRepositoryCustom {
     Optional<TradingProduct> findBySymbol(String symbol);
     Optional<TradingProduct> findByName(String name);
     List<TradingProduct> findByCategory(String category);
+    List<TradingProduct> findByIdIn(Collection<Long> ids);
+    List<TradingProduct> findBySymbolIn(Collection<String> symbols);
+
+    /**
+     * Deletes in one statement without loading the entity; returns the number of rows removed.
+     */
+    @Modifying
+    @Query("DELETE FROM TradingProduct p WHERE p.id = :id")
+    int deleteProductById(@Param("id") Long id);
 }
@@ -0,0 +1,22 @@
+package com.tradingsystem.repository;
+
+import com.tradingsystem.model.TradingProduct;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TradingProductRepositoryCustom {
+
+    /**
+     * Updates only the given attributes (keyed by entity attribute name) plus {@code updatedAt}
+     * in a single statement that also returns the updated row. Empty when no row has the id.
+     */
+    Optional<TradingProduct> patch(Long id, Map<String, Object> attributes);
+
+    /**
+     * Selects only the given attributes of the products matching {@code spec} (all products when
+     * {@code null}). Each row is a map from attribute name to value, in the order requested.
+     */
+    List<Map<String, Object>> findProjected(List<String> attributes, Specification<TradingProduct> spec);
+}
@@ -0,0 +1,123 @@
+package com.tradingsystem.repository;
+
+import com.tradingsystem.model.TradingProduct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository operations Spring Data JPA cannot derive: column projections built with the
+ * Criteria API, and JDBC statements that need a single round trip. Row-returning updates use {@code UPDATE ... RETURNING} on PostgreSQL and
+ * {@code SELECT ... FROM FINAL TABLE (UPDATE ...)} on H2.
+ */
+public class TradingProductRepositoryImpl implements TradingProductRepositoryCustom {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "name", "name",
+            "description", "description",
+            "price", "price",
+            "quantity", "quantity",
+            "category", "category",
+            "symbol", "symbol");
+
+    private static final String SELECT_COLUMNS =
+            "id, name, description, price, quantity, category, symbol, created_at, updated_at";
+
+    private static final RowMapper<TradingProduct> ROW_MAPPER = (rs, rowNum) -> {
+        TradingProduct product = new TradingProduct();
+        product.setId(rs.getLong("id"));
+        product.setName(rs.getString("name"));
+        product.setDescription(rs.getString("description"));
+        product.setPrice(rs.getBigDecimal("price"));
+        product.setQuantity(rs.getInt("quantity"));
+        product.setCategory(rs.getString("category"));
+        product.setSymbol(rs.getString("symbol"));
+        product.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        product.setUpdatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime());
+        return product;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Optional<TradingProduct> patch(Long id, Map<String, Object> attributes) {
+        StringBuilder update = new StringBuilder("UPDATE trading_products SET ");
+        List<Object> args = new ArrayList<>();
+        attributes.forEach((attribute, value) -> {
+            String column = COLUMNS.get(attribute);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown product attribute: " + attribute);
+            }
+            update.append(column).append(" = ?, ");
+            args.add(value);
+        });
+        update.append("updated_at = ? WHERE id = ?");
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(id);
+
+        String sql = isPostgres()
+                ? update + " RETURNING " + SELECT_COLUMNS
+                : "SELECT " + SELECT_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjected(List<String> attributes, Specification<TradingProduct> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TradingProduct> root = query.from(TradingProduct.class);
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+                row.put(attribute, tuple.get(attribute));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
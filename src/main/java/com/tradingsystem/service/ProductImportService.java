@@ -0,0 +1,139 @@
+package com.tradingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradingsystem.dto.ProductImportResultDTO;
+import com.tradingsystem.dto.ProductImportResultDTO.RowReject;
+import com.tradingsystem.dto.TradingProductDTO;
+import com.tradingsystem.importer.ImportFormat;
+import com.tradingsystem.importer.ImportRow;
+import com.tradingsystem.importer.ProductImportWriter;
+import com.tradingsystem.importer.ProductRowReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams products from CSV or NDJSON into the database. Rows are validated against the
+ * {@link TradingProductDTO} constraints and the unique name/symbol rules as they are read,
+ * then written in chunks of {@code trading.import.batch-size} rows.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int MAX_REPORTED_REJECTS = 1000;
+
+    @Autowired
+    private ProductImportWriter writer;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${trading.import.batch-size:1000}")
+    private int batchSize;
+
+    public ProductImportResultDTO importProducts(InputStream input, Charset charset, ImportFormat format)
+            throws IOException {
+        ProductImportResultDTO result = new ProductImportResultDTO();
+        result.setFormat(format.name());
+        long started = System.nanoTime();
+
+        Consumer<RowReject> rejects = reject -> {
+            result.setRowsRejected(result.getRowsRejected() + 1);
+            if (result.getRejects().size() < MAX_REPORTED_REJECTS) {
+                result.getRejects().add(reject);
+            }
+        };
+        Set<String> seenSymbols = new HashSet<>();
+        Set<String> seenNames = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+
+        try (ProductRowReader reader = format.open(
+                new BufferedReader(new InputStreamReader(input, charset)), objectMapper)) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                result.setRowsRead(result.getRowsRead() + 1);
+                String error = validate(row, seenSymbols, seenNames);
+                if (error != null) {
+                    String symbol = row.isMalformed() ? null : row.getProduct().getSymbol();
+                    rejects.accept(new RowReject(row.getLineNumber(), symbol, error));
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, result, rejects, started);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(chunk, result, rejects, started);
+            }
+        }
+
+        updateThroughput(result, started);
+        log.info("Import finished: {} rows read, {} imported, {} rejected in {} ms ({} rows/s)",
+                result.getRowsRead(), result.getRowsImported(), result.getRowsRejected(),
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void flush(List<ImportRow> chunk, ProductImportResultDTO result, Consumer<RowReject> rejects,
+                       long started) {
+        result.setRowsImported(result.getRowsImported() + writer.write(chunk, rejects));
+        chunk.clear();
+        updateThroughput(result, started);
+        log.info("Import progress: {} rows read, {} imported, {} rejected ({} rows/s)",
+                result.getRowsRead(), result.getRowsImported(), result.getRowsRejected(),
+                result.getRowsPerSecond());
+    }
+
+    private String validate(ImportRow row, Set<String> seenSymbols, Set<String> seenNames) {
+        if (row.isMalformed()) {
+            return row.getError();
+        }
+        TradingProductDTO product = row.getProduct();
+        Set<ConstraintViolation<TradingProductDTO>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (product.getQuantity() == null) {
+            return "quantity: Quantity is required";
+        }
+        if (seenSymbols.contains(product.getSymbol())) {
+            return "Duplicate symbol in import: " + product.getSymbol();
+        }
+        if (seenNames.contains(product.getName())) {
+            return "Duplicate name in import: " + product.getName();
+        }
+        seenSymbols.add(product.getSymbol());
+        seenNames.add(product.getName());
+        return null;
+    }
+
+    private static void updateThroughput(ProductImportResultDTO result, long started) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(Math.round(result.getRowsRead() * 1e10 / elapsedNanos) / 10.0);
+    }
+}
@@ -1,21 +1,71 @@
 package com.tradingsystem.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradingsystem.dto.ProductLookupResultDTO;
 import com.tradingsystem.dto.TradingProductDTO;
 import com.tradingsystem.model.TradingProduct;
 import com.tradingsystem.repository.TradingProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TradingProductService {
 
+    /** Upper bound on keys per multi-get request. */
+    public static final int MAX_LOOKUP_KEYS = 1000;
+
+    /** Keys per IN list; Hibernate pads each list to a power of two to reuse statement plans. */
+    private static final int IN_LIST_CHUNK_SIZE = 256;
+
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = Map.of(
+            "name", String.class,
+            "description", String.class,
+            "price", BigDecimal.class,
+            "quantity", Integer.class,
+            "category", String.class,
+            "symbol", String.class);
+
+    /**
+     * Column lengths of the patchable text fields, checked before the UPDATE is issued.
+     */
+    private static final Map<String, Integer> MAX_LENGTHS = Map.of(
+            "name", 255,
+            "category", 255,
+            "symbol", 255);
+
+    /**
+     * Attributes a {@code fields} parameter may select, in the order they appear in responses.
+     */
+    private static final List<String> SELECTABLE_FIELDS = List.of(
+            "id", "name", "description", "price", "quantity", "category", "symbol", "createdAt", "updatedAt");
+
     @Autowired
     private TradingProductRepository repository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     public TradingProductDTO createProduct(TradingProductDTO dto) {
         TradingProduct product = new TradingProduct();
         product.setName(dto.getName());
@@ -35,24 +85,94 @@ public class TradingProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 
+    /**
+     * Get product by ID, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductById(Long id, String fields) {
+        return findProjectedOne(parseFields(fields), "id", id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+    }
+
     public TradingProductDTO getProductBySymbol(String symbol) {
         return repository.findBySymbol(symbol)
                 .map(this::convertToDTO)
                 .orElseThrow(() -> new RuntimeException("Product not found with symbol: " + symbol));
     }
 
+    /**
+     * Get product by symbol, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductBySymbol(String symbol, String fields) {
+        return findProjectedOne(parseFields(fields), "symbol", symbol)
+                .orElseThrow(() -> new RuntimeException("Product not found with symbol: " + symbol));
+    }
+
+    /**
+     * Loads many products by id with chunked IN queries. Products are returned in request
+     * order (duplicates collapsed); ids with no product are listed as missing.
+     */
+    @Transactional(readOnly = true)
+    public ProductLookupResultDTO<TradingProductDTO, Long> getProductsByIds(List<Long> ids) {
+        return lookup(ids, chunk -> convertAll(repository.findByIdIn(chunk)), TradingProductDTO::getId);
+    }
+
+    /**
+     * {@link #getProductsByIds(List)}, selecting only the requested fields of each product
+     */
+    @Transactional(readOnly = true)
+    public ProductLookupResultDTO<Map<String, Object>, Long> getProductsByIds(List<Long> ids, String fields) {
+        return lookupProjected(ids, parseFields(fields), "id");
+    }
+
+    /**
+     * Loads many products by symbol, with the same ordering and missing-key rules as
+     * {@link #getProductsByIds(List)}.
+     */
+    @Transactional(readOnly = true)
+    public ProductLookupResultDTO<TradingProductDTO, String> getProductsBySymbols(List<String> symbols) {
+        return lookup(symbols, chunk -> convertAll(repository.findBySymbolIn(chunk)), TradingProductDTO::getSymbol);
+    }
+
+    /**
+     * {@link #getProductsBySymbols(List)}, selecting only the requested fields of each product
+     */
+    @Transactional(readOnly = true)
+    public ProductLookupResultDTO<Map<String, Object>, String> getProductsBySymbols(List<String> symbols,
+                                                                                    String fields) {
+        return lookupProjected(symbols, parseFields(fields), "symbol");
+    }
+
     public List<TradingProductDTO> getAllProducts() {
         return repository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get all trading products, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProducts(String fields) {
+        return repository.findProjected(parseFields(fields), null);
+    }
+
     public List<TradingProductDTO> getProductsByCategory(String category) {
         return repository.findByCategory(category).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get products by category, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductsByCategory(String category, String fields) {
+        return repository.findProjected(parseFields(fields),
+                (root, query, cb) -> cb.equal(root.get("category"), category));
+    }
+
     public TradingProductDTO updateProduct(Long id, TradingProductDTO dto) {
         TradingProduct product = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -68,11 +188,156 @@ public class TradingProductService {
         return convertToDTO(updated);
     }
 
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) with a single UPDATE touching only the patched
+     * columns. Invalid patches raise {@link IllegalArgumentException}.
+     */
+    public TradingProductDTO patchProduct(Long id, JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            changes.put(field.getKey(), readPatchValue(field.getKey(), field.getValue()));
+        }
+        if (changes.isEmpty()) {
+            return getProductById(id);
+        }
+        return repository.patch(id, changes)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+    }
+
     public void deleteProduct(Long id) {
-        if (!repository.existsById(id)) {
+        if (repository.deleteProductById(id) == 0) {
             throw new RuntimeException("Product not found with id: " + id);
         }
-        repository.deleteById(id);
+    }
+
+    private Object readPatchValue(String field, JsonNode node) {
+        Class<?> type = PATCHABLE_FIELDS.get(field);
+        if (type == null) {
+            throw new IllegalArgumentException("Field cannot be patched: " + field);
+        }
+        if (node.isNull()) {
+            throw new IllegalArgumentException("Field cannot be removed: " + field);
+        }
+        // Checked before conversion, which would coerce 1.5 to 1 or 42 to "42".
+        if (!hasJsonType(node, type)) {
+            throw new IllegalArgumentException("Invalid value for " + field + ": " + node);
+        }
+        Object value;
+        try {
+            value = objectMapper.convertValue(node, type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + field + ": " + node);
+        }
+        Set<ConstraintViolation<TradingProductDTO>> violations =
+                validator.validateValue(TradingProductDTO.class, field, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(field + ": " + violations.iterator().next().getMessage());
+        }
+        Integer maxLength = MAX_LENGTHS.get(field);
+        if (maxLength != null && ((String) value).length() > maxLength) {
+            throw new IllegalArgumentException(field + ": must be at most " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static boolean hasJsonType(JsonNode node, Class<?> type) {
+        if (type == String.class) {
+            return node.isTextual();
+        }
+        if (type == Integer.class) {
+            return node.isIntegralNumber() && node.canConvertToInt();
+        }
+        return node.isNumber();
+    }
+
+    private <T, K> ProductLookupResultDTO<T, K> lookup(List<K> keys, Function<List<K>, List<T>> loader,
+                                                       Function<T, K> keyOf) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinct.size() > MAX_LOOKUP_KEYS) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_KEYS + " keys per lookup, got " + distinct.size());
+        }
+        Map<K, T> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<K> chunk = distinct.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinct.size()));
+            loader.apply(chunk).forEach(product -> found.put(keyOf.apply(product), product));
+        }
+
+        List<T> products = new ArrayList<>(found.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : distinct) {
+            T product = found.get(key);
+            if (product == null) {
+                missing.add(key);
+            } else {
+                products.add(product);
+            }
+        }
+        return new ProductLookupResultDTO<>(products, missing);
+    }
+
+    /**
+     * {@link #lookup} over attribute maps. The key attribute is selected even when not requested,
+     * so rows can be put in request order, and dropped from the rows afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    private <K> ProductLookupResultDTO<Map<String, Object>, K> lookupProjected(List<K> keys, List<String> attributes,
+                                                                               String keyAttribute) {
+        List<String> selected = withAttribute(attributes, keyAttribute);
+        ProductLookupResultDTO<Map<String, Object>, K> result = lookup(keys,
+                chunk -> repository.findProjected(selected, (root, query, cb) -> root.get(keyAttribute).in(chunk)),
+                row -> (K) row.get(keyAttribute));
+        if (!attributes.contains(keyAttribute)) {
+            result.getProducts().forEach(row -> row.remove(keyAttribute));
+        }
+        return result;
+    }
+
+    private Optional<Map<String, Object>> findProjectedOne(List<String> attributes, String keyAttribute, Object key) {
+        return repository.findProjected(attributes, (root, query, cb) -> cb.equal(root.get(keyAttribute), key))
+                .stream().findFirst();
+    }
+
+    private static List<String> withAttribute(List<String> attributes, String attribute) {
+        if (attributes.contains(attribute)) {
+            return attributes;
+        }
+        List<String> extended = new ArrayList<>(attributes);
+        extended.add(attribute);
+        return extended;
+    }
+
+    /**
+     * Parse a comma-separated {@code fields} parameter into DTO order, rejecting unknown names
+     */
+    private static List<String> parseFields(String fields) {
+        List<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .toList();
+        List<String> unknown = requested.stream()
+                .filter(field -> !SELECTABLE_FIELDS.contains(field))
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fields " + unknown + ", selectable fields are " + SELECTABLE_FIELDS);
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one of " + SELECTABLE_FIELDS);
+        }
+        List<String> selected = new ArrayList<>(SELECTABLE_FIELDS);
+        selected.retainAll(requested);
+        return selected;
+    }
+
+    private List<TradingProductDTO> convertAll(List<TradingProduct> products) {
+        return products.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
     private TradingProductDTO convertToDTO(TradingProduct product) {
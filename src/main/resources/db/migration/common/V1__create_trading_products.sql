@@ -0,0 +1,13 @@
+CREATE TABLE trading_products (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)   NOT NULL,
+    description TEXT,
+    price       NUMERIC(38, 2) NOT NULL,
+    quantity    INTEGER        NOT NULL,
+    category    VARCHAR(255)   NOT NULL,
+    symbol      VARCHAR(255)   NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_trading_products_name UNIQUE (name),
+    CONSTRAINT uk_trading_products_symbol UNIQUE (symbol)
+);
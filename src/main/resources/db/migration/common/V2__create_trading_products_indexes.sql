@@ -0,0 +1,2 @@
+-- findByCategory filters on category; the trailing id keeps keyset listing within a category index-only.
+CREATE INDEX IF NOT EXISTS idx_trading_products_category_id ON trading_products (category, id);
@@ -0,0 +1,12 @@
+-- Responses recorded per Idempotency-Key; rows older than trading.idempotency.ttl are purged.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          VARCHAR(16)  NOT NULL,
+    response_status INTEGER,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    created_at      TIMESTAMP(6) NOT NULL,
+    completed_at    TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
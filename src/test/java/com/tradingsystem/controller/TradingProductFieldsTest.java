@@ -0,0 +1,108 @@
+package com.tradingsystem.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TradingProductFieldsTest {
+
+    private static final String CATEGORY = "FIELDS_PROBE";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long firstId;
+    private long secondId;
+
+    @BeforeEach
+    void createProducts() {
+        jdbcTemplate.update("DELETE FROM trading_products WHERE category = ?", CATEGORY);
+        firstId = insert("Fields One", "FLD1", "1.50");
+        secondId = insert("Fields Two", "FLD2", "2.50");
+    }
+
+    @Test
+    void categorySelectsOnlyTheRequestedFieldsInDtoOrder() throws Exception {
+        mockMvc.perform(get("/products/category/{category}", CATEGORY).param("fields", "price, symbol"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", aMapWithSize(2)))
+                .andExpect(content().string(startsWith("[{\"price\":1.50,\"symbol\":\"FLD1\"}")));
+    }
+
+    @Test
+    void byIdAndBySymbolSelectTheRequestedFields() throws Exception {
+        mockMvc.perform(get("/products/{id}", firstId).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"name\":\"Fields One\"}", true));
+        mockMvc.perform(get("/products/symbol/{symbol}", "FLD2").param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":" + secondId + "}", true));
+    }
+
+    @Test
+    void idLookupKeepsRequestOrderWithoutSelectingTheKey() throws Exception {
+        long unknownId = secondId + 1_000;
+        mockMvc.perform(get("/products")
+                        .param("ids", secondId + "," + unknownId + "," + firstId)
+                        .param("fields", "symbol"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"products\":[{\"symbol\":\"FLD2\"},{\"symbol\":\"FLD1\"}],"
+                        + "\"missing\":[" + unknownId + "]}", true));
+    }
+
+    @Test
+    void symbolLookupSelectsTheRequestedFields() throws Exception {
+        mockMvc.perform(post("/products/lookup").param("fields", "id,price")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"FLD1\", \"NONE\", \"FLD2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"products\":[{\"id\":" + firstId + ",\"price\":1.50},"
+                        + "{\"id\":" + secondId + ",\"price\":2.50}],\"missing\":[\"NONE\"]}", true));
+    }
+
+    @Test
+    void lookupWithoutFieldsReturnsWholeProducts() throws Exception {
+        mockMvc.perform(post("/products/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"FLD1\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value("Fields One"))
+                .andExpect(jsonPath("$.products[0].category").value(CATEGORY));
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        mockMvc.perform(get("/products").param("fields", "id,secret"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(startsWith("Unknown fields [secret]")));
+        mockMvc.perform(get("/products").param("ids", String.valueOf(firstId)).param("fields", " , "))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long insert(String name, String symbol, String price) {
+        jdbcTemplate.update("INSERT INTO trading_products (name, description, price, quantity, category, symbol, "
+                + "created_at) VALUES (?, 'd', ?, 1, ?, ?, CURRENT_TIMESTAMP)", name, new BigDecimal(price),
+                CATEGORY, symbol);
+        return jdbcTemplate.queryForObject("SELECT id FROM trading_products WHERE symbol = ?", Long.class, symbol);
+    }
+}
@@ -0,0 +1,69 @@
+package com.tradingsystem.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyReplayingRequestTest {
+
+    @Test
+    void readListenerReceivesTheWholeBufferedBody() {
+        BodyReplayingRequest request = new BodyReplayingRequest(new MockHttpServletRequest(),
+                "{\"name\":\"A\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(readNonBlocking(request.getInputStream())).isEqualTo("{\"name\":\"A\"}");
+    }
+
+    @Test
+    void readListenerReceivesTheHeadAndTheRestOfAStreamedBody() {
+        BodyReplayingRequest request = new BodyReplayingRequest(new MockHttpServletRequest(),
+                "head-".getBytes(StandardCharsets.UTF_8),
+                new ByteArrayInputStream("rest".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(readNonBlocking(request.getInputStream())).isEqualTo("head-rest");
+    }
+
+    @Test
+    void emptyBodyIsReportedAsFullyRead() {
+        BodyReplayingRequest request = new BodyReplayingRequest(new MockHttpServletRequest(), new byte[0]);
+
+        assertThat(readNonBlocking(request.getInputStream())).isEmpty();
+    }
+
+    /**
+     * Reads the way a Servlet 3.1 non-blocking handler does: only while the stream is ready.
+     */
+    private static String readNonBlocking(ServletInputStream input) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[4];
+                int read;
+                while (input.isReady() && !input.isFinished() && (read = input.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        assertThat(allRead).isTrue();
+        return body.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,184 @@
+package com.tradingsystem.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final int MAX_BODY_BYTES = 64;
+
+    private EmbeddedDatabase database;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/common/V3__create_idempotency_keys.sql")
+                .build();
+        IdempotencyStore store = new IdempotencyStore(new JdbcTemplate(database), 100, Duration.ofHours(24),
+                Duration.ofMinutes(1));
+        filter = new IdempotencyFilter(store, MAX_BODY_BYTES, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void retryReplaysTheRecordedResponse() throws Exception {
+        MockHttpServletResponse first = send(request("key-1", "{\"name\":\"A\"}"), created());
+        MockHttpServletResponse retry = send(request("key-1", "{\"name\":\"A\"}"), created());
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        send(request("key-2", "{\"name\":\"A\"}"), created());
+
+        MockHttpServletResponse other = send(request("key-2", "{\"name\":\"B\"}"), created());
+
+        assertThat(executions).hasValue(1);
+        assertThat(other.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void serverErrorsAreNotRecorded() throws Exception {
+        send(request("key-3", "{}"), (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        });
+
+        MockHttpServletResponse retry = send(request("key-3", "{}"), created());
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstExecution() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            entered.countDown();
+            try {
+                proceed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> sendQuietly("key-4", slow));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> sendQuietly("key-4", created()));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        proceed.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(executions).hasValue(1);
+        assertThat(replayed.getStatus()).isEqualTo(201);
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void bodyIsReplayedToTheHandler() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        send(request("key-5", "{\"name\":\"A\"}"), (request, response) -> {
+            seen.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            created().doFilter(request, response);
+        });
+
+        assertThat(seen).hasValue("{\"name\":\"A\"}");
+    }
+
+    @Test
+    void oversizedBodiesPassThroughUnwrapped() throws Exception {
+        MockHttpServletRequest request = request("key-6", "x".repeat(MAX_BODY_BYTES + 1));
+        AtomicReference<ServletRequest> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            seen.set(req);
+            created().doFilter(req, res);
+        };
+
+        send(request, chain);
+        send(request("key-6", "x".repeat(MAX_BODY_BYTES + 1)), chain);
+
+        assertThat(seen.get()).isInstanceOf(MockHttpServletRequest.class);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void requestsWithoutAKeyAreNotTracked() throws Exception {
+        MockHttpServletRequest request = request("ignored", "{}");
+        request.removeHeader(IdempotencyFilter.HEADER);
+
+        send(request, created());
+        MockHttpServletRequest again = request("ignored", "{}");
+        again.removeHeader(IdempotencyFilter.HEADER);
+        send(again, created());
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private FilterChain created() {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setContentType("application/json");
+            http.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse sendQuietly(String key, FilterChain chain) {
+        try {
+            return send(request(key, "{}"), chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tradingsystem.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/common/V3__create_idempotency_keys.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void onlyOneConcurrentClaimWins() throws Exception {
+        int threads = 8;
+        IdempotencyStore[] instances = new IdempotencyStore[threads];
+        for (int i = 0; i < threads; i++) {
+            // Separate stores stand in for separate instances sharing the table.
+            instances[i] = store(Duration.ofMinutes(1));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<IdempotencyStore.Claim>> claims = new ArrayList<>();
+            for (IdempotencyStore instance : instances) {
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return instance.claim("race", "fingerprint");
+                }));
+            }
+            start.countDown();
+            int claimed = 0;
+            for (Future<IdempotencyStore.Claim> claim : claims) {
+                IdempotencyStore.Claim result = claim.get(10, TimeUnit.SECONDS);
+                if (result.isClaimed()) {
+                    claimed++;
+                } else {
+                    assertThat(result.isBusy()).isTrue();
+                }
+            }
+            assertThat(claimed).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedKeyReturnsTheRecordedResponse() {
+        IdempotencyStore store = store(Duration.ofMinutes(1));
+        assertThat(store.claim("done", "fingerprint").isClaimed()).isTrue();
+        store.complete("done", response("fingerprint"));
+
+        IdempotencyStore other = store(Duration.ofMinutes(1));
+        IdempotencyStore.Claim claim = other.claim("done", "fingerprint");
+
+        assertThat(claim.isClaimed()).isFalse();
+        assertThat(claim.isBusy()).isFalse();
+        assertThat(claim.getResponse().getStatus()).isEqualTo(201);
+        assertThat(new String(other.find("done").getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void abandonedKeyCanBeClaimedAgain() {
+        IdempotencyStore store = store(Duration.ofMinutes(1));
+        store.claim("retry", "fingerprint");
+
+        store.abandon("retry");
+
+        assertThat(store.claim("retry", "fingerprint").isClaimed()).isTrue();
+    }
+
+    @Test
+    void staleClaimIsTakenOverOnce() {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at) "
+                + "VALUES ('stale', 'fingerprint', 'IN_PROGRESS', ?)", Timestamp.from(Instant.now().minusSeconds(120)));
+        IdempotencyStore store = store(Duration.ofMinutes(1));
+
+        assertThat(store.claim("stale", "fingerprint").isClaimed()).isTrue();
+        assertThat(store.claim("stale", "fingerprint").isBusy()).isTrue();
+    }
+
+    private IdempotencyStore store(Duration lockTimeout) {
+        return new IdempotencyStore(jdbcTemplate, 100, Duration.ofHours(24), lockTimeout);
+    }
+
+    static StoredResponse response(String fingerprint) {
+        return new StoredResponse(fingerprint, 201, "application/json",
+                "{\"id\":1}".getBytes(StandardCharsets.UTF_8), Instant.now());
+    }
+}
@@ -0,0 +1,112 @@
+package com.tradingsystem.importer;
+
+import com.tradingsystem.dto.ProductImportResultDTO.RowReject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import static com.tradingsystem.importer.ProductImportWriterTest.row;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Covers the PostgreSQL path: COPY into the staging table, the name conflict check and the
+ * {@code ON CONFLICT (symbol)} merge, and the savepoint fallback when the merge breaks a rename.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductImportWriterPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductImportWriter writer;
+    private final List<RowReject> rejects = new ArrayList<>();
+
+    @BeforeAll
+    static void createSchema() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_trading_products.sql"))
+                .execute(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM trading_products");
+        writer = new ProductImportWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @Test
+    void copiesAndMergesBySymbol() {
+        insert("Alpha", "AAA");
+
+        long imported = writer.write(List.of(
+                row(2, "Alpha \"Two\", revised", "AAA", "2.50"),
+                row(3, "Beta", "BBB", "3.00")), rejects::add);
+
+        assertThat(imported).isEqualTo(2);
+        assertThat(rejects).isEmpty();
+        assertThat(nameOf("AAA")).isEqualTo("Alpha \"Two\", revised");
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM trading_products WHERE symbol = 'AAA'",
+                BigDecimal.class)).isEqualByComparingTo("2.50");
+        assertThat(nameOf("BBB")).isEqualTo("Beta");
+    }
+
+    @Test
+    void rejectsNameConflictsBeforeTheMerge() {
+        insert("Alpha", "AAA");
+
+        long imported = writer.write(List.of(
+                row(2, "Alpha", "CCC", "1.00"),
+                row(3, "Delta", "DDD", "1.00")), rejects::add);
+
+        assertThat(imported).isEqualTo(1);
+        assertThat(rejects).singleElement().satisfies(reject -> {
+            assertThat(reject.getLine()).isEqualTo(2);
+            assertThat(reject.getSymbol()).isEqualTo("CCC");
+            assertThat(reject.getReason()).isEqualTo("Product name already used by symbol AAA");
+        });
+    }
+
+    @Test
+    void fallsBackToRowByRowWhenTheMergeAppliesRenamesOutOfOrder() {
+        insert("Alpha", "AAA");
+        insert("Beta", "BBB");
+
+        // AAA takes the name BBB gives up in the same chunk; the merge applies AAA first and collides.
+        long imported = writer.write(List.of(
+                row(2, "Beta", "AAA", "1.00"),
+                row(3, "Gamma", "BBB", "1.00")), rejects::add);
+
+        assertThat(imported).isEqualTo(2);
+        assertThat(rejects).isEmpty();
+        assertThat(nameOf("AAA")).isEqualTo("Beta");
+        assertThat(nameOf("BBB")).isEqualTo("Gamma");
+    }
+
+    private void insert(String name, String symbol) {
+        jdbcTemplate.update("INSERT INTO trading_products (name, description, price, quantity, category, symbol, "
+                + "created_at) VALUES (?, 'existing', 1.00, 1, 'STOCKS', ?, CURRENT_TIMESTAMP)", name, symbol);
+    }
+
+    private String nameOf(String symbol) {
+        return jdbcTemplate.queryForObject("SELECT name FROM trading_products WHERE symbol = ?", String.class, symbol);
+    }
+}
@@ -0,0 +1,172 @@
+package com.tradingsystem.importer;
+
+import com.tradingsystem.dto.ProductImportResultDTO.RowReject;
+import com.tradingsystem.dto.TradingProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Covers the JDBC batch path the writer takes on H2, and its row-by-row fallback.
+ */
+class ProductImportWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final List<RowReject> rejects = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/common/V1__create_trading_products.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void insertsNewSymbolsAndUpdatesExistingOnes() {
+        insert("Alpha", "AAA");
+
+        long imported = writer(database).write(List.of(
+                row(2, "Alpha Two", "AAA", "2.50"),
+                row(3, "Beta", "BBB", "3.00")), rejects::add);
+
+        assertThat(imported).isEqualTo(2);
+        assertThat(rejects).isEmpty();
+        assertThat(nameOf("AAA")).isEqualTo("Alpha Two");
+        assertThat(priceOf("AAA")).isEqualByComparingTo("2.50");
+        assertThat(nameOf("BBB")).isEqualTo("Beta");
+    }
+
+    @Test
+    void renameEarlierInTheChunkFreesTheNameForALaterRow() {
+        insert("Alpha", "AAA");
+        insert("Beta", "BBB");
+
+        long imported = writer(database).write(List.of(
+                row(2, "Gamma", "AAA", "1.00"),
+                row(3, "Alpha", "BBB", "1.00")), rejects::add);
+
+        assertThat(imported).isEqualTo(2);
+        assertThat(rejects).isEmpty();
+        assertThat(nameOf("AAA")).isEqualTo("Gamma");
+        assertThat(nameOf("BBB")).isEqualTo("Alpha");
+    }
+
+    @Test
+    void rejectsRowsTakingAnotherProductsName() {
+        insert("Alpha", "AAA");
+
+        long imported = writer(database).write(List.of(
+                row(2, "Alpha", "CCC", "1.00"),
+                row(3, "Delta", "DDD", "1.00")), rejects::add);
+
+        assertThat(imported).isEqualTo(1);
+        assertThat(rejects).singleElement().satisfies(reject -> {
+            assertThat(reject.getLine()).isEqualTo(2);
+            assertThat(reject.getSymbol()).isEqualTo("CCC");
+            assertThat(reject.getReason()).isEqualTo("Product name already used by symbol AAA");
+        });
+        assertThat(count()).isEqualTo(2);
+    }
+
+    @Test
+    void fallsBackToRowByRowWhenAConcurrentWriteTakesAName() {
+        // Another writer commits "Epsilon" after the chunk's lookup, just before its batch insert.
+        AtomicBoolean raced = new AtomicBoolean();
+        DataSource racing = new DelegatingDataSource(database) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("prepareStatement")
+                                    && ((String) args[0]).startsWith("INSERT INTO trading_products ")
+                                    && raced.compareAndSet(false, true)) {
+                                insert("Epsilon", "RIVAL");
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+
+        long imported = writer(racing).write(List.of(
+                row(2, "Epsilon", "EEE", "1.00"),
+                row(3, "Phi", "FFF", "1.00")), rejects::add);
+
+        assertThat(raced).isTrue();
+        assertThat(imported).isEqualTo(1);
+        assertThat(rejects).singleElement().satisfies(reject -> {
+            assertThat(reject.getLine()).isEqualTo(2);
+            assertThat(reject.getReason()).isEqualTo("Product name already used by symbol RIVAL");
+        });
+        assertThat(nameOf("FFF")).isEqualTo("Phi");
+        assertThat(count()).isEqualTo(2);
+    }
+
+    private static ProductImportWriter writer(DataSource dataSource) {
+        ProductImportWriter writer = new ProductImportWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", new JdbcTemplate(dataSource));
+        ReflectionTestUtils.setField(writer, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        return writer;
+    }
+
+    static ImportRow row(long line, String name, String symbol, String price) {
+        TradingProductDTO product = new TradingProductDTO();
+        product.setName(name);
+        product.setDescription(name + " description");
+        product.setPrice(new BigDecimal(price));
+        product.setQuantity(10);
+        product.setCategory("STOCKS");
+        product.setSymbol(symbol);
+        return ImportRow.parsed(line, product);
+    }
+
+    private void insert(String name, String symbol) {
+        jdbcTemplate.update("INSERT INTO trading_products (name, description, price, quantity, category, symbol, "
+                + "created_at) VALUES (?, 'existing', 1.00, 1, 'STOCKS', ?, CURRENT_TIMESTAMP)", name, symbol);
+    }
+
+    private String nameOf(String symbol) {
+        return jdbcTemplate.queryForObject("SELECT name FROM trading_products WHERE symbol = ?", String.class, symbol);
+    }
+
+    private BigDecimal priceOf(String symbol) {
+        return jdbcTemplate.queryForObject("SELECT price FROM trading_products WHERE symbol = ?",
+                BigDecimal.class, symbol);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trading_products", Integer.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.tradingsystem.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class SqlInstrumentationTest {
+
+    private final SqlStatementMonitor monitor = mock(SqlStatementMonitor.class);
+
+    @Test
+    void closeablePoolStaysCloseable() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(Closeable.class));
+
+        DataSource wrapped = SqlInstrumentation.wrap(pool, () -> monitor);
+
+        assertThat(wrapped).isInstanceOf(Closeable.class);
+        ((Closeable) wrapped).close();
+        verify((Closeable) pool).close();
+    }
+
+    @Test
+    void plainDataSourceIsNotMadeCloseable() {
+        DataSource wrapped = SqlInstrumentation.wrap(mock(DataSource.class), () -> monitor);
+
+        assertThat(wrapped).isNotInstanceOf(AutoCloseable.class);
+        assertThat(SqlInstrumentation.isInstrumented(wrapped)).isTrue();
+    }
+
+    @Test
+    void reportsExecutedStatements() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        try (Connection wrapped = SqlInstrumentation.wrap(dataSource, () -> monitor).getConnection()) {
+            PreparedStatement prepared = wrapped.prepareStatement("SELECT * FROM trading_products WHERE id = ?");
+            prepared.setLong(1, 42L);
+            prepared.executeQuery();
+        }
+
+        verify(monitor).statementExecuted(eq("SELECT * FROM trading_products WHERE id = ?"), eq(List.of(42L)), anyLong());
+    }
+
+    @Test
+    void countsStatementsAndRowsOfTheCurrentRequest() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/common/V1__create_trading_products.sql")
+                .build();
+        SqlStatementMonitor counting = new SqlStatementMonitor(100, 10);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(SqlInstrumentation.wrap(database, () -> counting));
+        SqlStatistics statistics = SqlStatistics.start("/api/products");
+        try {
+            for (String symbol : List.of("AAA", "BBB", "CCC")) {
+                jdbcTemplate.update("INSERT INTO trading_products (name, price, quantity, category, symbol, created_at) "
+                        + "VALUES (?, 1.00, 1, 'STOCKS', ?, CURRENT_TIMESTAMP)", symbol, symbol);
+            }
+            jdbcTemplate.queryForList("SELECT symbol FROM trading_products ORDER BY symbol", String.class);
+        } finally {
+            SqlStatistics.clear();
+            database.shutdown();
+        }
+
+        assertThat(statistics.getStatements()).isEqualTo(4);
+        assertThat(statistics.getRowsFetched()).isEqualTo(3);
+        assertThat(statistics.getJdbcNanos()).isPositive();
+        Map.Entry<String, Integer> repeated = statistics.getMostRepeatedStatement();
+        assertThat(repeated.getKey()).startsWith("INSERT INTO trading_products");
+        assertThat(repeated.getValue()).isEqualTo(3);
+        assertThat(SqlStatistics.current()).isNull();
+    }
+}
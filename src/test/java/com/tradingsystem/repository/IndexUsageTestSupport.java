@@ -0,0 +1,78 @@
+package com.tradingsystem.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository's lookups, then {@code EXPLAIN}s the SQL Hibernate generated for them and
+ * asserts the plan reads through an index: the unique constraint indexes from
+ * {@code V1__create_trading_products} for symbol and name, and
+ * {@code idx_trading_products_category_id} from {@code V2__create_trading_products_indexes}.
+ */
+abstract class IndexUsageTestSupport {
+
+    @Autowired
+    TradingProductRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findBySymbolUsesSymbolIndex() {
+        assertThat(plan(() -> repository.findBySymbol("AAPL"), "AAPL"))
+                .containsIgnoringCase("uk_trading_products_symbol");
+    }
+
+    @Test
+    void findBySymbolInUsesSymbolIndex() {
+        assertThat(plan(() -> repository.findBySymbolIn(List.of("AAPL", "MSFT", "GOOG")), "AAPL"))
+                .containsIgnoringCase("uk_trading_products_symbol");
+    }
+
+    @Test
+    void findByNameUsesNameIndex() {
+        assertThat(plan(() -> repository.findByName("Apple"), "Apple"))
+                .containsIgnoringCase("uk_trading_products_name");
+    }
+
+    @Test
+    void findByCategoryUsesCategoryIndex() {
+        assertThat(plan(() -> repository.findByCategory("STOCKS"), "STOCKS"))
+                .containsIgnoringCase("idx_trading_products_category_id");
+    }
+
+    /**
+     * The plan of the last statement {@code query} prepared, with every parameter bound to
+     * {@code parameter}.
+     */
+    String plan(Runnable query, Object parameter) {
+        CapturedStatements.clear();
+        query.run();
+        String sql = CapturedStatements.last();
+        beforeExplain();
+        return jdbcTemplate.query("EXPLAIN " + sql,
+                statement -> {
+                    int parameters = statement.getParameterMetaData().getParameterCount();
+                    for (int index = 1; index <= parameters; index++) {
+                        statement.setObject(index, parameter);
+                    }
+                },
+                rows -> {
+                    StringBuilder plan = new StringBuilder();
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                });
+    }
+
+    /**
+     * Prepares the session for {@code EXPLAIN}; tests run in a transaction, so settings made here
+     * apply to the same connection.
+     */
+    void beforeExplain() {
+    }
+}
@@ -0,0 +1,79 @@
+package com.tradingsystem.repository;
+
+import com.tradingsystem.model.TradingProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks {@link TradingProductRepositoryImpl#patch} against a database with the Flyway schema.
+ * Subclasses supply the database, so the same cases cover H2's {@code FINAL TABLE} form and
+ * PostgreSQL's {@code RETURNING} form.
+ */
+abstract class TradingProductPatchTestSupport {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+
+    private JdbcTemplate jdbcTemplate;
+    private TradingProductRepositoryImpl repository;
+    private long id;
+
+    protected abstract DataSource dataSource();
+
+    @BeforeEach
+    void createProduct() {
+        jdbcTemplate = new JdbcTemplate(dataSource());
+        jdbcTemplate.update("DELETE FROM trading_products");
+        jdbcTemplate.update("INSERT INTO trading_products (name, description, price, quantity, category, symbol, "
+                + "created_at) VALUES ('Alpha', 'First', 10.00, 5, 'STOCKS', 'AAA', ?)", Timestamp.valueOf(CREATED_AT));
+        id = jdbcTemplate.queryForObject("SELECT id FROM trading_products WHERE symbol = 'AAA'", Long.class);
+        repository = new TradingProductRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    void updatesOnlyThePatchedColumnsAndReturnsTheRow() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("price", new BigDecimal("12.34"));
+        changes.put("name", "Alpha Two");
+
+        Optional<TradingProduct> patched = repository.patch(id, changes);
+
+        assertThat(patched).hasValueSatisfying(product -> {
+            assertThat(product.getId()).isEqualTo(id);
+            assertThat(product.getName()).isEqualTo("Alpha Two");
+            assertThat(product.getPrice()).isEqualByComparingTo("12.34");
+            assertThat(product.getDescription()).isEqualTo("First");
+            assertThat(product.getQuantity()).isEqualTo(5);
+            assertThat(product.getSymbol()).isEqualTo("AAA");
+            assertThat(product.getCreatedAt()).isEqualTo(CREATED_AT);
+            assertThat(product.getUpdatedAt()).isNotNull();
+        });
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM trading_products WHERE id = ?", String.class, id))
+                .isEqualTo("Alpha Two");
+    }
+
+    @Test
+    void returnsEmptyWhenNoProductHasTheId() {
+        assertThat(repository.patch(id + 1, Map.of("quantity", 7))).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM trading_products WHERE id = ?", Integer.class, id))
+                .isEqualTo(5);
+    }
+
+    @Test
+    void rejectsUnknownAttributes() {
+        assertThatThrownBy(() -> repository.patch(id, Map.of("created_at", "2020-01-01")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown product attribute: created_at");
+    }
+}
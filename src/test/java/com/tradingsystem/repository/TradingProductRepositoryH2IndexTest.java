@@ -0,0 +1,8 @@
+package com.tradingsystem.repository;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.tradingsystem.repository.CapturedStatements")
+class TradingProductRepositoryH2IndexTest extends IndexUsageTestSupport {
+}
@@ -0,0 +1,26 @@
+package com.tradingsystem.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import javax.sql.DataSource;
+
+class TradingProductRepositoryH2PatchTest extends TradingProductPatchTestSupport {
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("db/migration/common/V1__create_trading_products.sql")
+            .build();
+
+    @Override
+    protected DataSource dataSource() {
+        return database;
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+}
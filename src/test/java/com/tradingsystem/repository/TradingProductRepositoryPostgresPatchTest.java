@@ -0,0 +1,31 @@
+package com.tradingsystem.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import javax.sql.DataSource;
+
+@Testcontainers(disabledWithoutDocker = true)
+class TradingProductRepositoryPostgresPatchTest extends TradingProductPatchTestSupport {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DriverManagerDataSource dataSource;
+
+    @BeforeAll
+    static void createSchema() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_trading_products.sql"))
+                .execute(dataSource);
+    }
+
+    @Override
+    protected DataSource dataSource() {
+        return dataSource;
+    }
+}
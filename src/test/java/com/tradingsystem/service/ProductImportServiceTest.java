@@ -0,0 +1,103 @@
+package com.tradingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradingsystem.dto.ProductImportResultDTO;
+import com.tradingsystem.dto.ProductImportResultDTO.RowReject;
+import com.tradingsystem.importer.ImportFormat;
+import com.tradingsystem.importer.ProductImportWriter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductImportServiceTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ProductImportService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/common/V1__create_trading_products.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        ProductImportWriter writer = new ProductImportWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(database)));
+        service = new ProductImportService();
+        ReflectionTestUtils.setField(service, "writer", writer);
+        ReflectionTestUtils.setField(service, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void unterminatedQuotePartwayThroughIsReportedAfterTheCommittedRows() throws IOException {
+        String csv = """
+                name,description,price,quantity,category,symbol
+                Alpha,a,1.00,1,STOCKS,AAA
+                Beta,b,2.00,2,STOCKS,BBB
+                Gamma,c,3.00,3,STOCKS,CCC
+                "Delta,d,4.00,4,STOCKS,DDD
+                Epsilon,e,5.00,5,STOCKS,EEE
+                """;
+
+        ProductImportResultDTO result = importing(csv, ImportFormat.CSV);
+
+        // Alpha and Beta were committed as the first chunk before the bad line was read.
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getRowsImported()).isEqualTo(3);
+        assertThat(result.getRowsRejected()).isEqualTo(1);
+        assertThat(result.getRejects()).singleElement().satisfies(reject -> {
+            assertThat(reject.getLine()).isEqualTo(5);
+            assertThat(reject.getReason()).isEqualTo("Unterminated quoted field starting at line 5");
+        });
+        assertThat(jdbcTemplate.queryForList("SELECT symbol FROM trading_products ORDER BY symbol", String.class))
+                .containsExactly("AAA", "BBB", "CCC");
+    }
+
+    @Test
+    void rejectsInvalidRowsAndKeepsImportingTheRest() throws IOException {
+        String ndjson = """
+                {"name":"Alpha","description":"a","price":1.00,"quantity":1,"category":"STOCKS","symbol":"AAA"}
+                {"name":"Beta","description":"b","price":
+                {"name":"Gamma","description":"c","price":0,"quantity":1,"category":"STOCKS","symbol":"CCC"}
+                {"name":"Alpha","description":"d","price":4.00,"quantity":1,"category":"STOCKS","symbol":"DDD"}
+                {"name":"Epsilon","description":"e","price":5.00,"quantity":5,"category":"STOCKS","symbol":"EEE"}
+                """;
+
+        ProductImportResultDTO result = importing(ndjson, ImportFormat.NDJSON);
+
+        assertThat(result.getRowsRead()).isEqualTo(5);
+        assertThat(result.getRowsImported()).isEqualTo(2);
+        assertThat(result.getRejects()).extracting(RowReject::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(result.getRejects().get(0).getReason()).startsWith("Malformed JSON");
+        assertThat(result.getRejects().get(1).getReason()).startsWith("price:");
+        assertThat(result.getRejects().get(2).getReason()).isEqualTo("Duplicate name in import: Alpha");
+    }
+
+    private ProductImportResultDTO importing(String body, ImportFormat format) throws IOException {
+        return service.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, format);
+    }
+}
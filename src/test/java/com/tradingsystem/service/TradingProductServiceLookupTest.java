@@ -0,0 +1,113 @@
+package com.tradingsystem.service;
+
+import com.tradingsystem.dto.ProductLookupResultDTO;
+import com.tradingsystem.dto.TradingProductDTO;
+import com.tradingsystem.model.TradingProduct;
+import com.tradingsystem.repository.TradingProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Multi-get behaviour of {@link TradingProductService}. The repository stub holds products for
+ * even ids only and records the size of every IN list it receives.
+ */
+class TradingProductServiceLookupTest {
+
+    private final TradingProductRepository repository = mock(TradingProductRepository.class);
+    private final List<Integer> inListSizes = new ArrayList<>();
+    private final TradingProductService service = new TradingProductService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "repository", repository);
+        when(repository.findByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            inListSizes.add(ids.size());
+            return ids.stream().filter(id -> id % 2 == 0).map(id -> product(id, "S" + id)).toList();
+        });
+        when(repository.findBySymbolIn(any())).thenAnswer(invocation -> {
+            Collection<String> symbols = invocation.getArgument(0);
+            inListSizes.add(symbols.size());
+            return symbols.stream().filter(symbol -> !symbol.startsWith("X"))
+                    .map(symbol -> product((long) symbol.hashCode(), symbol)).toList();
+        });
+    }
+
+    @Test
+    void loadsIdsInChunksOf256() {
+        List<Long> ids = LongStream.rangeClosed(1, 600).boxed().toList();
+
+        ProductLookupResultDTO<TradingProductDTO, Long> result = service.getProductsByIds(ids);
+
+        assertThat(inListSizes).containsExactly(256, 256, 88);
+        assertThat(result.getProducts()).hasSize(300);
+        assertThat(result.getMissing()).hasSize(300);
+    }
+
+    @Test
+    void returnsProductsInRequestOrderAndListsMissingIds() {
+        ProductLookupResultDTO<TradingProductDTO, Long> result = service.getProductsByIds(List.of(8L, 3L, 2L, 8L, 5L, 4L));
+
+        assertThat(result.getProducts()).extracting(TradingProductDTO::getId).containsExactly(8L, 2L, 4L);
+        assertThat(result.getMissing()).containsExactly(3L, 5L);
+        assertThat(inListSizes).containsExactly(5);
+    }
+
+    @Test
+    void acceptsMaxLookupKeys() {
+        List<Long> ids = LongStream.rangeClosed(1, TradingProductService.MAX_LOOKUP_KEYS).boxed().toList();
+
+        ProductLookupResultDTO<TradingProductDTO, Long> result = service.getProductsByIds(ids);
+
+        assertThat(inListSizes).containsExactly(256, 256, 256, 232);
+        assertThat(result.getProducts()).hasSize(500);
+    }
+
+    @Test
+    void rejectsMoreThanMaxLookupKeysBeforeQuerying() {
+        List<Long> ids = LongStream.rangeClosed(1, TradingProductService.MAX_LOOKUP_KEYS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> service.getProductsByIds(ids))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 1000 keys per lookup, got 1001");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void countsDistinctKeysAgainstTheLimit() {
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, TradingProductService.MAX_LOOKUP_KEYS).boxed().toList());
+        ids.addAll(List.of(1L, 2L, 3L));
+
+        assertThat(service.getProductsByIds(ids).getMissing()).hasSize(500);
+    }
+
+    @Test
+    void symbolLookupFollowsTheSameRules() {
+        ProductLookupResultDTO<TradingProductDTO, String> result =
+                service.getProductsBySymbols(List.of("MSFT", "XNONE", "AAPL", "MSFT"));
+
+        assertThat(result.getProducts()).extracting(TradingProductDTO::getSymbol).containsExactly("MSFT", "AAPL");
+        assertThat(result.getMissing()).containsExactly("XNONE");
+        assertThat(inListSizes).containsExactly(3);
+    }
+
+    private static TradingProduct product(Long id, String symbol) {
+        TradingProduct product = new TradingProduct();
+        product.setId(id);
+        product.setName("Product " + symbol);
+        product.setSymbol(symbol);
+        product.setCategory("STOCKS");
+        return product;
+    }
+}
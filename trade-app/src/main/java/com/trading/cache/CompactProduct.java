@@ -0,0 +1,62 @@
+package com.trading.cache;
+
+import com.trading.dto.TradingProductDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable, memory-compact form of a {@link TradingProductDTO} for holding many products on the
+ * heap. The id, quantity and price (as a long scaled by {@value #PRICE_SCALE}, the column's scale)
+ * are primitives, and category and status are shared through a {@link ValueInterner}. With
+ * compressed oops this is one 48-byte object plus the name and description strings, where the DTO
+ * needs its own {@code Long}, {@code BigDecimal}, {@code Integer} and two more strings.
+ * <p>
+ * {@link #toDTO()} rebuilds a DTO equal to the original, including the price's scale, so the JSON
+ * written for it is identical.
+ */
+final class CompactProduct {
+
+    static final int PRICE_SCALE = 2;
+
+    private final long id;
+    private final long unscaledPrice;
+    private final int quantity;
+    private final String productName;
+    private final String description;
+    private final String category;
+    private final String status;
+
+    private CompactProduct(long id, long unscaledPrice, int quantity, String productName, String description,
+                           String category, String status) {
+        this.id = id;
+        this.unscaledPrice = unscaledPrice;
+        this.quantity = quantity;
+        this.productName = productName;
+        this.description = description;
+        this.category = category;
+        this.status = status;
+    }
+
+    /**
+     * The compact form, or {@code null} when the product has a value it cannot represent exactly
+     * (a missing id, price or quantity, or a price not at the column's scale).
+     */
+    static CompactProduct of(TradingProductDTO product, ValueInterner interner) {
+        BigDecimal price = product.getPrice();
+        if (product.getId() == null || product.getQuantity() == null || price == null
+                || price.scale() != PRICE_SCALE || price.precision() > 18) {
+            return null;
+        }
+        return new CompactProduct(product.getId(), price.unscaledValue().longValue(), product.getQuantity(),
+                product.getProductName(), product.getDescription(),
+                interner.intern(product.getCategory()), interner.intern(product.getStatus()));
+    }
+
+    /**
+     * A new DTO the caller may modify.
+     */
+    TradingProductDTO toDTO() {
+        return new TradingProductDTO(id, productName, description, category,
+                BigDecimal.valueOf(unscaledPrice, PRICE_SCALE), quantity, status);
+    }
+}
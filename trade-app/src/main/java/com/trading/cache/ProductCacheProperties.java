@@ -0,0 +1,57 @@
+package com.trading.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.cache.*} settings for the product near-cache and its invalidation channel.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.cache")
+public class ProductCacheProperties {
+
+    /**
+     * Serve product lookups by id from the local near-cache. Writes publish invalidations either way.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Most products kept per instance.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * Upper bound on how long an entry is served, in case an invalidation is ever missed.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * PostgreSQL NOTIFY channel carrying the ids changed by each committed transaction.
+     */
+    private String channel = "trading_product_changes";
+
+    /**
+     * How often the LISTEN connection is checked and the catch-up watermark advanced.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(5);
+
+    /**
+     * Pause before reconnecting a dropped LISTEN connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+
+    /**
+     * Re-read window before the watermark on reconnect; must exceed the longest commit.
+     */
+    private Duration catchUpOverlap = Duration.ofSeconds(30);
+
+    /**
+     * How long change log rows are kept. An outage longer than this clears the whole cache.
+     */
+    private Duration changeRetention = Duration.ofMinutes(10);
+
+}
@@ -0,0 +1,259 @@
+package com.trading.cache;
+
+import com.trading.sharding.ShardingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies other instances' product changes to the {@link ProductNearCache}. One daemon thread per
+ * database (per shard when sharding is enabled) holds a dedicated connection, outside the pool,
+ * that {@code LISTEN}s on {@code trading.cache.channel}.
+ * <p>
+ * Every heartbeat records the database time as a watermark: all changes committed before it have
+ * been applied. After a reconnect the change log is replayed from the watermark, less
+ * {@code trading.cache.catch-up-overlap} for transactions that logged their change before the
+ * watermark but committed after it. A gap longer than the log's retention, or the first connect,
+ * clears the cache instead.
+ * <p>
+ * Only PostgreSQL has a channel; on H2 each instance has its own database and local
+ * invalidation by {@link ProductChangePublisher} is all that is needed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangeListener {
+
+    private static final String POSTGRESQL_URL_PREFIX = "jdbc:postgresql:";
+
+    private static final String CATCH_UP_SQL = "SELECT product_ids FROM trading_product_changes WHERE changed_at >= ?";
+
+    private static final String PURGE_SQL = "DELETE FROM trading_product_changes WHERE changed_at < ?";
+
+    private static final long PURGE_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final ProductCacheProperties properties;
+    private final ProductNearCache cache;
+    private final DataSourceProperties dataSourceProperties;
+    private final ShardingProperties shardingProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private volatile boolean running = true;
+    private volatile boolean postgres;
+    private Counter reconnects;
+
+    @PostConstruct
+    void start() {
+        List<Target> targets = targets();
+        postgres = !targets.isEmpty() && targets.stream().allMatch(target -> target.getUrl().startsWith(POSTGRESQL_URL_PREFIX));
+        if (!postgres) {
+            log.info("Product cache invalidation is local only; LISTEN/NOTIFY needs PostgreSQL");
+            return;
+        }
+        if (!properties.isEnabled()) {
+            return;
+        }
+        reconnects = meterRegistry.counter("trading.cache.listener.reconnects");
+        for (int shard = 0; shard < targets.size(); shard++) {
+            Target target = targets.get(shard);
+            Thread thread = new Thread(() -> listen(target), "product-change-listener-" + shard);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        synchronized (connections) {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not close LISTEN connection", e);
+                }
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join(properties.getHeartbeatInterval().toMillis());
+        }
+    }
+
+    /**
+     * Whether writes must publish their changes on the NOTIFY channel.
+     */
+    public boolean isPostgres() {
+        return postgres;
+    }
+
+    private List<Target> targets() {
+        List<Target> targets = new ArrayList<>();
+        if (shardingProperties.isEnabled()) {
+            for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+                targets.add(new Target(shard.getUrl(), shard.getUsername(), shard.getPassword()));
+            }
+        } else {
+            targets.add(new Target(dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword()));
+        }
+        return targets;
+    }
+
+    private void listen(Target target) {
+        Timestamp watermark = null;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    target.getUrl(), target.getUsername(), target.getPassword())) {
+                register(connection);
+                // Bounds the heartbeat query, so a silently dropped connection is noticed.
+                connection.setNetworkTimeout(Runnable::run, (int) properties.getHeartbeatInterval().toMillis() * 3);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + properties.getChannel().replace("\"", "\"\"") + "\"");
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                Timestamp now = databaseTime(connection);
+                catchUp(connection, watermark, now);
+                watermark = now;
+                log.info("Listening for product changes on {}", target.getUrl());
+
+                long heartbeat = properties.getHeartbeatInterval().toMillis();
+                long nextPurge = System.nanoTime();
+                while (running) {
+                    apply(notifications.getNotifications((int) heartbeat));
+                    now = databaseTime(connection);
+                    // Notifications committed before the heartbeat arrive with its result.
+                    apply(notifications.getNotifications());
+                    watermark = now;
+                    if (System.nanoTime() - nextPurge >= 0) {
+                        purge(connection, now);
+                        nextPurge = System.nanoTime() + PURGE_INTERVAL_NANOS;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                reconnects.increment();
+                log.warn("LISTEN connection to {} failed, reconnecting in {}", target.getUrl(),
+                        properties.getReconnectDelay(), e);
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void register(Connection connection) throws SQLException {
+        synchronized (connections) {
+            connections.removeIf(previous -> {
+                try {
+                    return previous.isClosed();
+                } catch (SQLException e) {
+                    return true;
+                }
+            });
+            connections.add(connection);
+        }
+        if (!running) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Invalidates everything changed since {@code watermark}, while the connection was down.
+     */
+    private void catchUp(Connection connection, Timestamp watermark, Timestamp now) throws SQLException {
+        if (watermark == null) {
+            // Entries cached before this database's channel was up may already be stale.
+            cache.invalidateAll(ProductNearCache.Source.CATCH_UP);
+            return;
+        }
+        long overlap = properties.getCatchUpOverlap().toMillis();
+        Timestamp from = new Timestamp(watermark.getTime() - overlap);
+        if (from.getTime() < now.getTime() - properties.getChangeRetention().toMillis()) {
+            log.warn("Disconnected since {}, beyond the change log retention; clearing the product cache", watermark);
+            cache.invalidateAll(ProductNearCache.Source.CATCH_UP);
+            return;
+        }
+        int changes = 0;
+        try (PreparedStatement statement = connection.prepareStatement(CATCH_UP_SQL)) {
+            statement.setTimestamp(1, from);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    invalidate(rows.getString(1), ProductNearCache.Source.CATCH_UP);
+                    changes++;
+                }
+            }
+        }
+        log.info("Caught up on {} product change(s) since {}", changes, from);
+    }
+
+    private void apply(PGNotification[] notifications) {
+        if (notifications == null) {
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            invalidate(notification.getParameter(), ProductNearCache.Source.REMOTE);
+        }
+    }
+
+    private void invalidate(String productIds, ProductNearCache.Source source) {
+        for (String id : productIds.split(",")) {
+            try {
+                cache.invalidate(Long.valueOf(id), source);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed product change payload: {}", productIds);
+                return;
+            }
+        }
+    }
+
+    private void purge(Connection connection, Timestamp now) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(PURGE_SQL)) {
+            statement.setTimestamp(1, new Timestamp(now.getTime() - properties.getChangeRetention().toMillis()));
+            int purged = statement.executeUpdate();
+            if (purged > 0) {
+                log.debug("Purged {} product change log rows", purged);
+            }
+        }
+    }
+
+    private static Timestamp databaseTime(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT clock_timestamp()")) {
+            rows.next();
+            return rows.getTimestamp(1);
+        }
+    }
+
+    @Value
+    private static class Target {
+        String url;
+        String username;
+        String password;
+    }
+}
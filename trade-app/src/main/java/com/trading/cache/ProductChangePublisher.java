@@ -0,0 +1,116 @@
+package com.trading.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes product changes to every instance's {@link ProductNearCache}. Write paths report the
+ * ids they touch; the ids of a transaction are collected and, right before it commits, logged to
+ * {@code trading_product_changes} and sent with {@code pg_notify} on the transaction's own
+ * connection. PostgreSQL delivers the notifications only if the transaction commits, and on the
+ * shard it wrote to. The local cache is invalidated after commit without waiting for the echo.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangePublisher {
+
+    /**
+     * NOTIFY payloads must stay under 8000 bytes; ids are split across several notifications.
+     */
+    static final int MAX_PAYLOAD_LENGTH = 7_900;
+
+    private static final String LOG_SQL =
+            "INSERT INTO trading_product_changes (product_ids, changed_at) VALUES (?, clock_timestamp())";
+
+    private final ProductNearCache cache;
+    private final ProductChangeListener listener;
+    private final ProductCacheProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records that the product was written by the current transaction, or invalidates it right
+     * away when there is none.
+     */
+    public void changed(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(productId));
+            cache.invalidate(productId, ProductNearCache.Source.LOCAL);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                pending.productIds.add(productId);
+                return;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        pending.productIds.add(productId);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    public void changed(Collection<Long> productIds) {
+        productIds.forEach(this::changed);
+    }
+
+    private void publish(Collection<Long> productIds) {
+        if (!listener.isPostgres() || productIds.isEmpty()) {
+            return;
+        }
+        List<String> payloads = payloads(productIds);
+        jdbcTemplate.update(LOG_SQL, String.join(",", payloads));
+        for (String payload : payloads) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rows -> null, properties.getChannel(), payload);
+        }
+    }
+
+    private static List<String> payloads(Collection<Long> productIds) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        for (Long productId : productIds) {
+            String id = productId.toString();
+            if (payload.length() > 0 && payload.length() + 1 + id.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            if (payload.length() > 0) {
+                payload.append(',');
+            }
+            payload.append(id);
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    /**
+     * The ids written by one transaction.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Set<Long> productIds = new LinkedHashSet<>();
+
+        ProductChangePublisher owner() {
+            return ProductChangePublisher.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            publish(productIds);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                productIds.forEach(id -> cache.invalidate(id, ProductNearCache.Source.LOCAL));
+            }
+        }
+    }
+}
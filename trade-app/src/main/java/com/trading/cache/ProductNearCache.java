@@ -0,0 +1,182 @@
+package com.trading.cache;
+
+import com.trading.dto.TradingProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-instance cache of products by id, kept coherent across replicas by
+ * {@link ProductChangePublisher} and {@link ProductChangeListener}. Products are held as
+ * {@link CompactProduct}s to keep a large catalog within a small heap.
+ * <p>
+ * A load only fills the cache if no invalidation hit the id's stripe while it ran, so a value
+ * read just before another transaction commits cannot outlive that commit's invalidation.
+ * Reads inside a transaction that may have written are never served from or stored in the
+ * cache, since they can see uncommitted rows (the warm-up runner's rolled-back products).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductNearCache {
+
+    private static final int STRIPES = 256;
+
+    /**
+     * Distinct category and status strings shared between entries.
+     */
+    private static final int MAX_INTERNED_VALUES = 1024;
+
+    private final ProductCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ValueInterner interner = new ValueInterner(MAX_INTERNED_VALUES);
+
+    private Counter hits;
+    private Counter misses;
+    private Counter bypassed;
+    private Counter localInvalidations;
+    private Counter remoteInvalidations;
+    private Counter catchUpInvalidations;
+
+    @PostConstruct
+    void start() {
+        hits = meterRegistry.counter("trading.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("trading.cache.requests", "result", "miss");
+        bypassed = meterRegistry.counter("trading.cache.requests", "result", "bypass");
+        localInvalidations = meterRegistry.counter("trading.cache.invalidations", "source", "local");
+        remoteInvalidations = meterRegistry.counter("trading.cache.invalidations", "source", "remote");
+        catchUpInvalidations = meterRegistry.counter("trading.cache.invalidations", "source", "catch-up");
+        Gauge.builder("trading.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * The product from the cache, else from {@code loader}; {@code null} when it does not exist.
+     * Every call returns a fresh DTO the caller may modify.
+     */
+    public TradingProductDTO get(Long id, Supplier<TradingProductDTO> loader) {
+        if (!properties.isEnabled() || !cacheableTransaction()) {
+            bypassed.increment();
+            return loader.get();
+        }
+        Entry entry = entries.get(id);
+        if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.product.toDTO();
+        }
+        misses.increment();
+        int stripe = stripe(id);
+        long generation = generations.get(stripe);
+        TradingProductDTO loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        CompactProduct compact = CompactProduct.of(loaded, interner);
+        if (compact != null && generations.get(stripe) == generation) {
+            Entry fresh = new Entry(compact, System.nanoTime() + properties.getTtl().toNanos());
+            entries.put(id, fresh);
+            if (generations.get(stripe) != generation) {
+                // Invalidated while storing; the value may predate that write.
+                entries.remove(id, fresh);
+            } else if (entries.size() > properties.getMaxSize()) {
+                evict();
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long id, Source source) {
+        generations.incrementAndGet(stripe(id));
+        entries.remove(id);
+        counter(source).increment();
+    }
+
+    public void invalidateAll(Source source) {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+        counter(source).increment(entries.size());
+        entries.clear();
+    }
+
+    /**
+     * Outside a transaction, or in a read-only one, every row read is committed.
+     */
+    private static boolean cacheableTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Drops a tenth of the entries in hash order, which is close enough to random for a
+     * cache whose hot set is far smaller than its bound.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = properties.getMaxSize() - properties.getMaxSize() / 10;
+            Iterator<Long> ids = entries.keySet().iterator();
+            while (entries.size() > target && ids.hasNext()) {
+                ids.next();
+                ids.remove();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private Counter counter(Source source) {
+        return switch (source) {
+            case LOCAL -> localInvalidations;
+            case REMOTE -> remoteInvalidations;
+            case CATCH_UP -> catchUpInvalidations;
+        };
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), STRIPES);
+    }
+
+    /**
+     * Where an invalidation came from, for the {@code trading.cache.invalidations} metric.
+     */
+    public enum Source {
+        /**
+         * A transaction committed by this instance.
+         */
+        LOCAL,
+        /**
+         * A NOTIFY from any instance's commit.
+         */
+        REMOTE,
+        /**
+         * The change log replayed after the LISTEN connection was re-established.
+         */
+        CATCH_UP
+    }
+
+    private static final class Entry {
+        private final CompactProduct product;
+        private final long expiresAt;
+
+        private Entry(CompactProduct product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
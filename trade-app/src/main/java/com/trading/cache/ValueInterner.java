@@ -0,0 +1,38 @@
+package com.trading.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of low-cardinality strings such as categories and statuses, so every cached
+ * product shares one {@code String} per distinct value. Bounded: once {@code maxSize} values are
+ * known, new ones are returned as they are instead of being retained.
+ */
+final class ValueInterner {
+
+    private final int maxSize;
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    ValueInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = values.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (values.size() >= maxSize) {
+            return value;
+        }
+        canonical = values.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.trading.controller;
+
+import com.trading.dto.ReservationDTO;
+import com.trading.dto.ReservationRequestDTO;
+import com.trading.service.ReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/products/{productId}/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    /**
+     * Reserve product quantity
+     */
+    @PostMapping
+    public ResponseEntity<ReservationDTO> reserve(
+            @PathVariable Long productId,
+            @Valid @RequestBody ReservationRequestDTO dto) {
+        ReservationDTO reservation = reservationService.reserve(productId, dto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    /**
+     * Confirm a reservation, decrementing the product quantity
+     */
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<ReservationDTO> confirm(
+            @PathVariable Long productId,
+            @PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.confirm(productId, reservationId));
+    }
+
+    /**
+     * Release a reservation
+     */
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<ReservationDTO> release(
+            @PathVariable Long productId,
+            @PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.release(productId, reservationId));
+    }
+
+}
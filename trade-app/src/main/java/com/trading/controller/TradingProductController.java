@@ -1,10 +1,13 @@
 package com.trading.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.trading.dto.PriceUpdateDTO;
 import com.trading.dto.TradingProductDTO;
 import com.trading.service.TradingProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,7 +33,10 @@ public class TradingProductController {
      * Get all trading products
      */
     @GetMapping
-    public ResponseEntity<List<TradingProductDTO>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getAllProducts(fields));
+        }
         List<TradingProductDTO> products = productService.getAllProducts();
         return ResponseEntity.ok(products);
     }
@@ -39,7 +45,10 @@ public class TradingProductController {
      * Get product by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TradingProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getProductById(id, fields));
+        }
         TradingProductDTO product = productService.getProductById(id);
         return ResponseEntity.ok(product);
     }
@@ -48,7 +57,11 @@ public class TradingProductController {
      * Get products by status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TradingProductDTO>> getProductsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getProductsByStatus(@PathVariable String status,
+                                                 @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getProductsByStatus(status, fields));
+        }
         List<TradingProductDTO> products = productService.getProductsByStatus(status);
         return ResponseEntity.ok(products);
     }
@@ -57,7 +70,11 @@ public class TradingProductController {
      * Get products by category
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<TradingProductDTO>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String category,
+                                                   @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getProductsByCategory(category, fields));
+        }
         List<TradingProductDTO> products = productService.getProductsByCategory(category);
         return ResponseEntity.ok(products);
     }
@@ -66,7 +83,11 @@ public class TradingProductController {
      * Search products by name
      */
     @GetMapping("/search")
-    public ResponseEntity<List<TradingProductDTO>> searchByProductName(@RequestParam String name) {
+    public ResponseEntity<?> searchByProductName(@RequestParam String name,
+                                                 @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.searchByProductName(name, fields));
+        }
         List<TradingProductDTO> products = productService.searchByProductName(name);
         return ResponseEntity.ok(products);
     }
@@ -82,6 +103,29 @@ public class TradingProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * Partially update trading product (JSON Merge Patch)
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TradingProductDTO> patchProduct(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        TradingProductDTO patchedProduct = productService.patchProduct(id, patch);
+        return ResponseEntity.ok(patchedProduct);
+    }
+
+    /**
+     * Update price and/or quantity; 202 Accepted when applied write-behind
+     */
+    @PutMapping("/{id}/price")
+    public ResponseEntity<TradingProductDTO> updatePrice(
+            @PathVariable Long id,
+            @Valid @RequestBody PriceUpdateDTO dto) {
+        return productService.updatePrice(id, dto)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.accepted().build());
+    }
+
     /**
      * Delete trading product
      */
@@ -0,0 +1,35 @@
+package com.trading.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceUpdateDTO {
+
+    /**
+     * Bounded to the {@code NUMERIC(10, 2)} column, so a write-behind update cannot be accepted
+     * and then fail at flush time.
+     */
+    @Positive(message = "Price must be positive")
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 integer digits and 2 decimals")
+    private BigDecimal price;
+
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @JsonIgnore
+    @AssertTrue(message = "Price or quantity is required")
+    public boolean isPriceOrQuantityPresent() {
+        return price != null || quantity != null;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+
+    private String id;
+
+    private Long productId;
+
+    private Integer quantity;
+
+    private String status; // HELD, CONFIRMED, RELEASED
+
+    private LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,12 @@
+package com.trading.exception;
+
+/**
+ * Thrown for requests that are well-formed JSON but semantically invalid; mapped to 400.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.trading.exception;
+
+/**
+ * Thrown when a reservation cannot be made or has already expired, been released or been
+ * confirmed; mapped to 409.
+ */
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.trading.exception;
+
+/**
+ * Thrown when a confirmation could not be written in time or the writer is shutting down; mapped
+ * to 503. The decrement may still commit, so clients should check the product before retrying.
+ */
+public class ReservationUnavailableException extends RuntimeException {
+
+    public ReservationUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.trading.exception;
+
+/**
+ * Thrown when the write-behind queue cannot accept an update; mapped to 503 so clients back off.
+ */
+public class WriteBehindRejectedException extends RuntimeException {
+
+    public WriteBehindRejectedException(String message) {
+        super(message);
+    }
+
+}
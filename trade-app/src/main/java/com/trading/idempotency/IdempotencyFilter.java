@@ -0,0 +1,201 @@
+package com.trading.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code Idempotency-Key} support for write requests. The first request with a key runs and its
+ * response (unless 5xx) is recorded in the {@link IdempotencyStore}; retries with the same key
+ * get that response replayed, marked with {@code Idempotent-Replayed: true}, without touching the
+ * service layer. Duplicates arriving while the first is still running on this instance wait for
+ * its response instead of executing again. Reusing a key for a different request is rejected
+ * with 422, and a key being executed on another instance answers 409.
+ * <p>
+ * Covers every write endpoint: products, price updates and reservations. Bodies larger than
+ * {@code trading.idempotency.max-body-bytes} are passed through without idempotency handling.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        int maxBodyBytes = properties.getMaxBodyBytes();
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            log.debug("Request body of {} exceeds {} bytes, ignoring {}", request.getRequestURI(), maxBodyBytes, HEADER);
+            chain.doFilter(request, response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            // Chunked body without a Content-Length: pass on what was read followed by the rest.
+            log.debug("Request body of {} exceeds {} bytes, ignoring {}", request.getRequestURI(), maxBodyBytes, HEADER);
+            chain.doFilter(new BodyReplayingRequest(request, body, request.getInputStream()), response);
+            return;
+        }
+        HttpServletRequest replayable = new BodyReplayingRequest(request, body);
+        String fingerprint = fingerprint(request, body);
+
+        while (true) {
+            StoredResponse stored = store.find(key);
+            if (stored != null) {
+                replay(stored, fingerprint, response);
+                return;
+            }
+
+            CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+            if (running != null) {
+                try {
+                    stored = running.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    response.sendError(HttpServletResponse.SC_CONFLICT,
+                            "A request with this " + HEADER + " is still in progress");
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the original request", e);
+                } catch (ExecutionException e) {
+                    stored = null;
+                }
+                if (stored == null) {
+                    // The running execution ended without a response; try to run it ourselves.
+                    continue;
+                }
+                replay(stored, fingerprint, response);
+                return;
+            }
+
+            try {
+                IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+                if (claim.isBusy()) {
+                    execution.complete(null);
+                    response.sendError(HttpServletResponse.SC_CONFLICT,
+                            "A request with this " + HEADER + " is already in progress");
+                    return;
+                }
+                if (!claim.isClaimed()) {
+                    execution.complete(claim.getResponse());
+                    replay(claim.getResponse(), fingerprint, response);
+                    return;
+                }
+                execution.complete(execute(key, fingerprint, replayable, response, chain));
+                return;
+            } catch (IOException | ServletException | RuntimeException e) {
+                execution.complete(null);
+                throw e;
+            } finally {
+                inFlight.remove(key, execution);
+            }
+        }
+    }
+
+    private StoredResponse execute(String key, String fingerprint, HttpServletRequest request,
+                                   HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.abandon(key);
+            throw e;
+        }
+        StoredResponse result = new StoredResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                wrapper.getContentAsByteArray(), Instant.now());
+        try {
+            if (result.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                store.abandon(key);
+            } else {
+                store.complete(key, result);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not record the response for {} {}", HEADER, key, e);
+        }
+        wrapper.copyBodyToResponse();
+        return result;
+    }
+
+    private void replay(StoredResponse stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            response.sendError(422, HEADER + " was already used for a different request");
+            return;
+        }
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.getBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * SHA-256 over method, path, query and body, so a key cannot be replayed for another request.
+     */
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
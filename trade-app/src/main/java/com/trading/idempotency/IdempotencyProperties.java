@@ -0,0 +1,42 @@
+package com.trading.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.idempotency.*} settings for {@code Idempotency-Key} handling on write requests.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Recorded responses kept in memory per instance; older ones are read back from the table.
+     */
+    private int cacheSize = 10_000;
+
+    /**
+     * How long a key's response is replayed; expired keys are purged hourly.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * After this long a claimed key whose request never finished may be taken over.
+     */
+    private Duration lockTimeout = Duration.ofMinutes(1);
+
+    /**
+     * How long a duplicate waits for the original request running on this instance.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Larger request bodies are passed through without idempotency handling.
+     */
+    private int maxBodyBytes = 1_048_576;
+
+}
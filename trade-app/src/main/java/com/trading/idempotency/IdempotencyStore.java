@@ -0,0 +1,203 @@
+package com.trading.idempotency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorded responses per idempotency key: a bounded LRU cache in front of the
+ * {@code idempotency_keys} table, so replays usually cost a map lookup and still work after a
+ * restart or on another instance. A key is claimed with an {@code IN_PROGRESS} row before the
+ * request runs; the row's primary key keeps two instances from executing the same key at once.
+ * With sharding enabled the table on shard 0 is used.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getString("status"),
+            rs.getTimestamp("created_at"),
+            new StoredResponse(
+                    rs.getString("fingerprint"),
+                    rs.getInt("response_status"),
+                    rs.getString("content_type"),
+                    rs.getBytes("response_body"),
+                    rs.getTimestamp("created_at").toInstant()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+    private final Map<String, StoredResponse> cache;
+    private ScheduledExecutorService purger;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        int cacheSize = properties.getCacheSize();
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * The unexpired response recorded for the key, from the cache or else the table.
+     */
+    public StoredResponse find(String key) {
+        StoredResponse cached = cache.get(key);
+        if (cached != null) {
+            if (!isExpired(cached.getCreatedAt())) {
+                return cached;
+            }
+            cache.remove(key);
+        }
+        Row row = load(key);
+        if (row == null || !COMPLETED.equals(row.getStatus()) || isExpired(row.getCreatedAt().toInstant())) {
+            return null;
+        }
+        cache.put(key, row.getResponse());
+        return row.getResponse();
+    }
+
+    /**
+     * Claims the key for execution by this caller, unless a response is already recorded or
+     * another execution holds the key.
+     */
+    public Claim claim(String key, String fingerprint) {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at) "
+                    + "VALUES (?, ?, ?, ?)", key, fingerprint, IN_PROGRESS, now);
+            return Claim.CLAIMED;
+        } catch (DuplicateKeyException e) {
+            Row row = load(key);
+            if (row == null) {
+                return claim(key, fingerprint);
+            }
+            boolean completed = COMPLETED.equals(row.getStatus());
+            Instant createdAt = row.getCreatedAt().toInstant();
+            if (completed && !isExpired(createdAt)) {
+                cache.put(key, row.getResponse());
+                return new Claim(row.getResponse());
+            }
+            if (!completed && createdAt.plus(properties.getLockTimeout()).isAfter(Instant.now())) {
+                return Claim.BUSY;
+            }
+            // Expired response or an execution that died without releasing the key: take it over.
+            int taken = jdbcTemplate.update("UPDATE idempotency_keys SET fingerprint = ?, status = ?, "
+                            + "response_status = NULL, content_type = NULL, response_body = NULL, "
+                            + "created_at = ?, completed_at = NULL WHERE idempotency_key = ? AND created_at = ?",
+                    fingerprint, IN_PROGRESS, now, key, row.getCreatedAt());
+            return taken == 1 ? Claim.CLAIMED : Claim.BUSY;
+        }
+    }
+
+    /**
+     * Records the response of a claimed key.
+     */
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, response_status = ?, content_type = ?, "
+                        + "response_body = ?, completed_at = ? WHERE idempotency_key = ?",
+                COMPLETED, response.getStatus(), response.getContentType(), response.getBody(),
+                Timestamp.from(Instant.now()), key);
+        cache.put(key, response);
+    }
+
+    /**
+     * Releases a claimed key without recording a response, so the request can be retried.
+     */
+    public void abandon(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status = ?", key, IN_PROGRESS);
+    }
+
+    private Row load(String key) {
+        List<Row> rows = jdbcTemplate.query("SELECT fingerprint, status, response_status, content_type, "
+                + "response_body, created_at FROM idempotency_keys WHERE idempotency_key = ?", ROW_MAPPER, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private boolean isExpired(Instant createdAt) {
+        return createdAt.plus(properties.getTtl()).isBefore(Instant.now());
+    }
+
+    private void purge() {
+        try {
+            int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?",
+                    Timestamp.from(Instant.now().minus(properties.getTtl())));
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge expired idempotency keys", e);
+        }
+    }
+
+    /**
+     * Result of {@link #claim}: claimed by the caller, a recorded response to replay, or busy
+     * because another execution holds the key.
+     */
+    public static final class Claim {
+        static final Claim CLAIMED = new Claim(null);
+        static final Claim BUSY = new Claim(null);
+
+        private final StoredResponse response;
+
+        private Claim(StoredResponse response) {
+            this.response = response;
+        }
+
+        public boolean isClaimed() {
+            return this == CLAIMED;
+        }
+
+        public boolean isBusy() {
+            return this == BUSY;
+        }
+
+        public StoredResponse getResponse() {
+            return response;
+        }
+    }
+
+    @Value
+    private static class Row {
+        String status;
+        Timestamp createdAt;
+        StoredResponse response;
+    }
+}
@@ -0,0 +1,18 @@
+package com.trading.idempotency;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A response recorded for an idempotency key, together with the fingerprint of the request
+ * that produced it.
+ */
+@Value
+public class StoredResponse {
+    String fingerprint;
+    int status;
+    String contentType;
+    byte[] body;
+    Instant createdAt;
+}
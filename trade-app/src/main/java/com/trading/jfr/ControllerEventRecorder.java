@@ -0,0 +1,84 @@
+package com.trading.jfr;
+
+import com.trading.controller.TradingProductController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Enumeration;
+import java.util.Map;
+
+/**
+ * Emits a {@link ControllerOperationEvent} per {@link TradingProductController} request. The event
+ * begins in {@link #preHandle}, {@link #beforeBodyWrite} marks where message conversion starts and
+ * {@link #afterCompletion} ends it, so the serialization time covers Jackson and the socket write.
+ */
+@ControllerAdvice(assignableTypes = TradingProductController.class)
+public class ControllerEventRecorder implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String EVENT_ATTRIBUTE = ControllerEventRecorder.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.getBeanType() == TradingProductController.class) {
+            ControllerOperationEvent event = new ControllerOperationEvent();
+            if (event.isEnabled()) {
+                event.start(method.getMethod().getName(), keyOf(request));
+                request.setAttribute(EVENT_ATTRIBUTE, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(EVENT_ATTRIBUTE) instanceof ControllerOperationEvent event) {
+            event.bodyWriting(body);
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) instanceof ControllerOperationEvent event) {
+            request.removeAttribute(EVENT_ATTRIBUTE);
+            event.complete(response.getStatus(), ex != null || response.getStatus() >= 400);
+        }
+    }
+
+    /**
+     * The first path variable, else the first query parameter other than {@code fields}.
+     */
+    private static String keyOf(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && !variables.isEmpty()) {
+            return String.valueOf(variables.values().iterator().next());
+        }
+        Enumeration<String> names = request.getParameterNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (!"fields".equals(name)) {
+                return request.getParameter(name);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.trading.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class JfrWebConfiguration implements WebMvcConfigurer {
+
+    private final ControllerEventRecorder controllerEventRecorder;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(controllerEventRecorder);
+    }
+}
@@ -0,0 +1,101 @@
+package com.trading.jfr;
+
+import com.trading.monitoring.SqlStatistics;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Timespan;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Fields shared by the product operation events. DB time and statement count are the share of
+ * the request's {@link SqlStatistics} accrued while the operation ran, so they stay zero for work
+ * outside an HTTP request (warm-up, write-behind flushes).
+ * <p>
+ * The concrete events are disabled by default and switched on by {@code jfr/trading.jfc}. Callers
+ * check {@link #isEnabled()} first, so without such a recording an instrumented call costs one
+ * flag check and an allocation that escape analysis removes.
+ */
+abstract class ProductOperationEvent extends Event {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    @Description("Id, category, status or search term the operation is keyed on")
+    String key;
+
+    @Label("Rows")
+    @Description("Products returned, or rows affected by a modifying query")
+    long rows;
+
+    @Label("Statements")
+    @Description("JDBC statements executed")
+    int statements;
+
+    @Label("DB Time")
+    @Description("Time spent in the JDBC driver")
+    @Timespan
+    long dbTime;
+
+    @Label("Failed")
+    boolean failed;
+
+    private transient SqlStatistics statistics;
+    private transient int statementsAtStart;
+    private transient long jdbcNanosAtStart;
+
+    void start(String operation, Object key) {
+        this.operation = operation;
+        this.key = keyOf(key);
+        statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statementsAtStart = statistics.getStatements();
+            jdbcNanosAtStart = statistics.getJdbcNanos();
+        }
+        begin();
+    }
+
+    void finish(boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.failed = failed;
+            if (statistics != null) {
+                statements = statistics.getStatements() - statementsAtStart;
+                dbTime = statistics.getJdbcNanos() - jdbcNanosAtStart;
+            }
+            commit();
+        }
+    }
+
+    static String keyOf(Object key) {
+        if (!(key instanceof Number) && !(key instanceof CharSequence)) {
+            return null;
+        }
+        String value = key.toString();
+        return value.length() > MAX_KEY_LENGTH ? value.substring(0, MAX_KEY_LENGTH) : value;
+    }
+
+    static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof Boolean found) {
+            return found ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.trading.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@code TradingProductRepository} call. With sharding enabled one event is emitted per shard
+ * the call is routed or scattered to.
+ */
+@Name("trading.RepositoryOperation")
+@Label("Product Repository Operation")
+@Description("TradingProductRepository method call")
+@Category({"Trading", "Products"})
+@Enabled(false)
+@StackTrace(false)
+class RepositoryOperationEvent extends ProductOperationEvent {
+}
@@ -0,0 +1,39 @@
+package com.trading.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} bean with {@link SqlInstrumentation} so JPA, Flyway and
+ * {@code JdbcTemplate} traffic is all accounted for.
+ */
+@Component
+public class DataSourceInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementMonitor> monitorProvider;
+    private volatile SqlStatementMonitor monitor;
+
+    public DataSourceInstrumentationPostProcessor(ObjectProvider<SqlStatementMonitor> monitorProvider) {
+        this.monitorProvider = monitorProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !SqlInstrumentation.isInstrumented(dataSource)) {
+            return SqlInstrumentation.wrap(dataSource, this::monitor);
+        }
+        return bean;
+    }
+
+    private SqlStatementMonitor monitor() {
+        SqlStatementMonitor resolved = monitor;
+        if (resolved == null) {
+            resolved = monitorProvider.getObject();
+            monitor = resolved;
+        }
+        return resolved;
+    }
+}
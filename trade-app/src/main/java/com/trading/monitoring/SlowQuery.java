@@ -0,0 +1,20 @@
+package com.trading.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that exceeded the slow query threshold, as reported by {@code /actuator/slowqueries}.
+ */
+@Data
+@AllArgsConstructor
+public class SlowQuery {
+    private Instant executedAt;
+    private String requestUri;
+    private String sql;
+    private List<Object> parameters;
+    private double elapsedMillis;
+}
@@ -0,0 +1,31 @@
+package com.trading.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the slowest statements since the last reset, with their bind
+ * parameters. A DELETE clears the buffer.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SqlStatementMonitor monitor;
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return monitor.getSlowQueries();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        monitor.reset();
+    }
+}
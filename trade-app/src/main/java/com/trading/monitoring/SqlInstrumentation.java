@@ -0,0 +1,181 @@
+package com.trading.monitoring;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * JDK dynamic proxies around a {@link DataSource} and the connections, statements and result
+ * sets it hands out. Every execute call is timed and reported to the {@link SqlStatementMonitor}
+ * together with its bind parameters; every {@code ResultSet.next()} that returns a row is counted.
+ * {@code unwrap} and all other calls go straight to the underlying driver objects.
+ * <p>
+ * A closeable {@code DataSource} (a connection pool) stays closeable through the proxy, so the
+ * container still shuts the pool down with the context.
+ */
+public final class SqlInstrumentation {
+
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private SqlInstrumentation() {
+    }
+
+    public static DataSource wrap(DataSource dataSource, Supplier<SqlStatementMonitor> monitor) {
+        Class<?>[] types = dataSource instanceof Closeable ? new Class<?>[]{DataSource.class, Closeable.class}
+                : dataSource instanceof AutoCloseable ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) proxy(types, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return wrapConnection(connection, monitor);
+            }
+            return result;
+        });
+    }
+
+    public static boolean isInstrumented(DataSource dataSource) {
+        return Proxy.isProxyClass(dataSource.getClass())
+                && Proxy.getInvocationHandler(dataSource) instanceof DelegatingHandler;
+    }
+
+    private static Connection wrapConnection(Connection connection, Supplier<SqlStatementMonitor> monitor) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, (CallableStatement) result, (String) args[0], monitor);
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, (PreparedStatement) result, (String) args[0], monitor);
+                case "createStatement":
+                    return wrapStatement(Statement.class, (Statement) result, null, monitor);
+                default:
+                    return result;
+            }
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, S statement, String preparedSql,
+                                                         Supplier<SqlStatementMonitor> monitor) {
+        List<Object> parameters = new ArrayList<>();
+        return proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : "<batch>";
+                long started = System.nanoTime();
+                Object result;
+                try {
+                    result = invoke(target, method, args);
+                } finally {
+                    monitor.get().statementExecuted(sql, snapshot(parameters), System.nanoTime() - started);
+                }
+                if (result instanceof ResultSet resultSet) {
+                    return wrapResultSet(resultSet, monitor);
+                }
+                return result;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordParameter(parameters, index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            }
+            Object result = invoke(target, method, args);
+            if (result instanceof ResultSet resultSet && name.equals("getResultSet")) {
+                return wrapResultSet(resultSet, monitor);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet, Supplier<SqlStatementMonitor> monitor) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                monitor.get().rowFetched();
+            }
+            return result;
+        });
+    }
+
+    private static void recordParameter(List<Object> parameters, int index, Object value) {
+        while (parameters.size() < index) {
+            parameters.add(null);
+        }
+        Object display = value;
+        if (value instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+            display = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        } else if (value != null && !(value instanceof Number || value instanceof String
+                || value instanceof Boolean || value instanceof Date || value instanceof Temporal)) {
+            display = "<" + value.getClass().getSimpleName() + ">";
+        }
+        parameters.set(index - 1, display);
+    }
+
+    private static List<Object> snapshot(List<Object> parameters) {
+        return parameters.isEmpty() ? Collections.emptyList() : new ArrayList<>(parameters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        return (T) proxy(new Class<?>[]{type}, target, interceptor);
+    }
+
+    private static Object proxy(Class<?>[] types, Object target, Interceptor interceptor) {
+        return Proxy.newProxyInstance(SqlInstrumentation.class.getClassLoader(), types,
+                new DelegatingHandler(target, interceptor));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        Object intercept(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class DelegatingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final Interceptor interceptor;
+
+        private DelegatingHandler(Object target, Interceptor interceptor) {
+            this.target = target;
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return method.invoke(target, args);
+                }
+            }
+            return interceptor.intercept(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.trading.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code trading.sql.*} settings for per-request SQL accounting.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.sql")
+public class SqlMonitoringProperties {
+
+    /**
+     * Statements slower than this are kept in the slow query buffer.
+     */
+    private long slowThresholdMs = 100;
+
+    /**
+     * Number of slow statements retained.
+     */
+    private int slowQueryCapacity = 100;
+
+    /**
+     * Requests executing more statements than this are logged as likely N+1.
+     */
+    private int maxStatementsPerRequest = 20;
+
+}
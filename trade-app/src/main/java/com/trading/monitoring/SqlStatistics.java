@@ -0,0 +1,76 @@
+package com.trading.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC statement counts, rows fetched and time spent in the driver for the request bound to
+ * the current thread. Populated by the instrumented {@code DataSource} while
+ * {@link SqlAccountingFilter} has a request open.
+ */
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final String requestUri;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private int statements;
+    private long rowsFetched;
+    private long jdbcNanos;
+
+    private SqlStatistics(String requestUri) {
+        this.requestUri = requestUri;
+    }
+
+    public static SqlStatistics start(String requestUri) {
+        SqlStatistics statistics = new SqlStatistics(requestUri);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of the current request, or {@code null} outside a request.
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRow() {
+        rowsFetched++;
+    }
+
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Returns the statement text executed most often in this request, the usual N+1 culprit.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
@@ -1,14 +1,36 @@
 package com.trading.repository;
 
 import com.trading.entity.TradingProduct;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * The product queries the application uses. Only these are exposed, rather than the whole
+ * {@code JpaRepository}, because each one must also be routed by the sharded implementation
+ * ({@code ShardRoutingRepository}); a call it could not route fails to compile instead of at run
+ * time. The CRUD methods declared here are implemented by Spring Data as usual.
+ */
 @Repository
-public interface TradingProductRepository extends JpaRepository<TradingProduct, Long> {
+public interface TradingProductRepository
+        extends org.springframework.data.repository.Repository<TradingProduct, Long>, TradingProductRepositoryCustom {
+    <S extends TradingProduct> S save(S product);
+    Optional<TradingProduct> findById(Long id);
+    boolean existsById(Long id);
+    List<TradingProduct> findAll();
+    long count();
     List<TradingProduct> findByStatus(String status);
     List<TradingProduct> findByCategory(String category);
     List<TradingProduct> findByProductNameContainingIgnoreCase(String productName);
+
+    /**
+     * Deletes in one statement without loading the entity; returns the number of rows removed.
+     */
+    @Modifying
+    @Query("DELETE FROM TradingProduct p WHERE p.id = :id")
+    int deleteProductById(@Param("id") Long id);
 }
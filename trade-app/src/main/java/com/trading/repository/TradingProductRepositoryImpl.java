@@ -0,0 +1,131 @@
+package com.trading.repository;
+
+import com.trading.entity.TradingProduct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository operations Spring Data JPA cannot derive: column projections built with the
+ * Criteria API, and JDBC statements that need a single round trip. Row-returning updates use {@code UPDATE ... RETURNING} on PostgreSQL and
+ * {@code SELECT ... FROM FINAL TABLE (UPDATE ...)} on H2.
+ */
+@RequiredArgsConstructor
+public class TradingProductRepositoryImpl implements TradingProductRepositoryCustom {
+
+    static final Map<String, String> COLUMNS = Map.of(
+            "productName", "product_name",
+            "description", "description",
+            "category", "category",
+            "price", "price",
+            "quantity", "quantity",
+            "status", "status");
+
+    private static final String SELECT_COLUMNS =
+            "id, product_name, description, category, price, quantity, status, created_at, updated_at";
+
+    static final RowMapper<TradingProduct> ROW_MAPPER = (rs, rowNum) -> new TradingProduct(
+            rs.getLong("id"),
+            rs.getString("product_name"),
+            rs.getString("description"),
+            rs.getString("category"),
+            rs.getBigDecimal("price"),
+            rs.getInt("quantity"),
+            rs.getString("status"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Optional<TradingProduct> patch(Long id, Map<String, Object> attributes) {
+        StringBuilder update = new StringBuilder("UPDATE trading_products SET ");
+        List<Object> args = new ArrayList<>();
+        attributes.forEach((attribute, value) -> {
+            String column = COLUMNS.get(attribute);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown product attribute: " + attribute);
+            }
+            update.append(column).append(" = ?, ");
+            args.add(value);
+        });
+        update.append("updated_at = ? WHERE id = ?");
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(id);
+
+        String sql = isPostgres()
+                ? update + " RETURNING " + SELECT_COLUMNS
+                : "SELECT " + SELECT_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjected(List<String> attributes, Specification<TradingProduct> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TradingProduct> root = query.from(TradingProduct.class);
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+                row.put(attribute, tuple.get(attribute));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedById(Long id, List<String> attributes) {
+        return findProjected(attributes, (root, query, cb) -> cb.equal(root.get("id"), id)).stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjectedByCategory(String category, List<String> attributes) {
+        return findProjected(attributes, (root, query, cb) -> cb.equal(root.get("category"), category));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.trading.reservation;
+
+import com.trading.cache.ProductChangePublisher;
+import com.trading.exception.ReservationUnavailableException;
+import com.trading.sharding.ShardContext;
+import com.trading.sharding.ShardIds;
+import com.trading.sharding.ShardMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists confirmed holds as conditional decrements, {@code quantity = quantity - n WHERE
+ * quantity >= n}, so the database never goes negative even when several instances hold stock for
+ * the same product. Confirmations queue up while the previous batch is being written and are then
+ * written together, one statement per product, so a hot product costs one row lock per batch
+ * instead of one per confirmation. When a product's combined decrement does not fit, its holds
+ * are retried one by one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedHoldWriter {
+
+    private static final String DECREMENT_SQL = "UPDATE trading_products SET quantity = quantity - ?, "
+            + "updated_at = ? WHERE id = ? AND quantity >= ?";
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final ReservationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardMap> shardMap;
+    private final ProductChangePublisher productChanges;
+
+    private final LinkedBlockingQueue<Confirmation> queue = new LinkedBlockingQueue<>();
+    private Thread worker;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    void start() {
+        worker = new Thread(this::run, "reservation-confirm-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(5_000);
+        List<Confirmation> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    /**
+     * Queues the hold's decrement. The future completes with {@code true} once it is committed,
+     * {@code false} if the product no longer has the quantity, or exceptionally if the write failed
+     * or the writer has stopped.
+     */
+    CompletableFuture<Boolean> submit(ReservationHold hold) {
+        Confirmation confirmation = new Confirmation(hold, new CompletableFuture<>());
+        queue.add(confirmation);
+        // stop() drains the queue after clearing running, so a confirmation added later is never written.
+        if (!running && queue.remove(confirmation)) {
+            confirmation.getResult().completeExceptionally(
+                    new ReservationUnavailableException("Reservation confirmations are shutting down"));
+        }
+        return confirmation.getResult();
+    }
+
+    private void run() {
+        List<Confirmation> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Confirmation first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, properties.getBatchSize() - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Confirmation> batch) {
+        ShardMap shards = shardMap.getIfAvailable();
+        if (shards == null) {
+            writeBatch(batch);
+            return;
+        }
+        Map<Integer, List<Confirmation>> byShard = new TreeMap<>();
+        for (Confirmation confirmation : batch) {
+            int shard = ShardIds.shardOf(confirmation.getHold().getProductId());
+            if (shard < shards.shardCount()) {
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(confirmation);
+            } else {
+                confirmation.getResult().complete(false);
+            }
+        }
+        byShard.forEach((shard, confirmations) -> ShardContext.runOn(shard, () -> writeBatch(confirmations)));
+    }
+
+    private void writeBatch(List<Confirmation> batch) {
+        Map<Long, List<Confirmation>> byProduct = new LinkedHashMap<>();
+        for (Confirmation confirmation : batch) {
+            byProduct.computeIfAbsent(confirmation.getHold().getProductId(), key -> new ArrayList<>()).add(confirmation);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Confirmation, Boolean> outcomes = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                outcomes.clear();
+                productChanges.changed(byProduct.keySet());
+                List<Map.Entry<Long, List<Confirmation>>> products = new ArrayList<>(byProduct.entrySet());
+                int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, products, properties.getBatchSize(),
+                        (ps, product) -> {
+                            long total = total(product.getValue());
+                            ps.setLong(1, total);
+                            ps.setTimestamp(2, now);
+                            ps.setLong(3, product.getKey());
+                            ps.setLong(4, total);
+                        });
+                int index = 0;
+                for (int[] chunk : counts) {
+                    for (int count : chunk) {
+                        List<Confirmation> confirmations = products.get(index++).getValue();
+                        if (count != 0) {
+                            confirmations.forEach(confirmation -> outcomes.put(confirmation, true));
+                        } else {
+                            confirmations.forEach(confirmation -> outcomes.put(confirmation, confirmations.size() > 1
+                                    && decrementOne(confirmation.getHold(), now)));
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not write {} reservation confirmations", batch.size(), e);
+            batch.forEach(confirmation -> confirmation.getResult().completeExceptionally(e));
+            return;
+        }
+        batch.forEach(confirmation -> confirmation.getResult().complete(outcomes.getOrDefault(confirmation, false)));
+    }
+
+    private boolean decrementOne(ReservationHold hold, Timestamp now) {
+        return jdbcTemplate.update(DECREMENT_SQL, hold.getQuantity(), now, hold.getProductId(), hold.getQuantity()) > 0;
+    }
+
+    private static long total(List<Confirmation> confirmations) {
+        long total = 0;
+        for (Confirmation confirmation : confirmations) {
+            total += confirmation.getHold().getQuantity();
+        }
+        return total;
+    }
+
+    @Value
+    private static class Confirmation {
+        ReservationHold hold;
+        CompletableFuture<Boolean> result;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.trading.reservation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for hold expiry. Scheduling is a lock-free enqueue into the bucket for the
+ * hold's deadline; a single thread visits one bucket per tick. Holds due further out than one
+ * rotation, or no longer held, are re-hashed or dropped when their bucket comes round.
+ */
+@Slf4j
+final class HoldExpiryWheel {
+
+    private final Queue<ReservationHold>[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final Consumer<ReservationHold> onExpiry;
+    private final Thread worker;
+
+    private volatile long tick;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    HoldExpiryWheel(Duration tickDuration, int wheelSize, Consumer<ReservationHold> onExpiry) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) * 2 - 1);
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.tickNanos = tickDuration.toNanos();
+        this.onExpiry = onExpiry;
+        this.worker = new Thread(this::run, "reservation-expiry");
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    void schedule(ReservationHold hold) {
+        long remaining = hold.getDeadlineNanos() - System.nanoTime();
+        long ticks = Math.min(Math.max(1, (remaining + tickNanos - 1) / tickNanos), mask);
+        buckets[(int) ((tick + ticks) & mask)].add(hold);
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        List<ReservationHold> due = new ArrayList<>();
+        while (running) {
+            next += tickNanos;
+            long sleep;
+            while ((sleep = next - System.nanoTime()) > 0 && running) {
+                LockSupport.parkNanos(sleep);
+            }
+            long current = tick + 1;
+            tick = current;
+
+            Queue<ReservationHold> bucket = buckets[(int) (current & mask)];
+            for (ReservationHold hold = bucket.poll(); hold != null; hold = bucket.poll()) {
+                due.add(hold);
+            }
+            long now = System.nanoTime();
+            for (ReservationHold hold : due) {
+                if (hold.getState() != ReservationHold.State.HELD) {
+                    continue;
+                }
+                if (hold.getDeadlineNanos() - now > 0) {
+                    schedule(hold);
+                    continue;
+                }
+                try {
+                    onExpiry.accept(hold);
+                } catch (RuntimeException e) {
+                    log.error("Could not expire reservation {}", hold.getId(), e);
+                }
+            }
+            due.clear();
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.trading.reservation;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A quantity held for one product until it is confirmed, released or expires. Exactly one of
+ * those transitions wins, decided by compare-and-set on the state.
+ */
+@Getter
+public class ReservationHold {
+
+    public enum State {
+        HELD,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private final String id;
+    private final Long productId;
+    private final int quantity;
+    private final LocalDateTime expiresAt;
+    private final long deadlineNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.HELD);
+
+    ReservationHold(String id, Long productId, int quantity, LocalDateTime expiresAt, long deadlineNanos) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    boolean transition(State target) {
+        return state.compareAndSet(State.HELD, target);
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.trading.reservation;
+
+import com.trading.entity.TradingProduct;
+import com.trading.exception.ReservationConflictException;
+import com.trading.exception.ReservationUnavailableException;
+import com.trading.repository.TradingProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock ledger for reservation holds. Reserving, releasing and expiring only touch the
+ * product's atomic counters, so hot products never serialize on a database row lock; only the
+ * first load of a product's stock takes one of the striped locks. Confirmations are handed to
+ * {@link ConfirmedHoldWriter}, whose conditional decrement stays authoritative when other
+ * instances or direct quantity updates move the stock.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationLedger {
+
+    private final ReservationProperties properties;
+    private final TradingProductRepository repository;
+    private final ConfirmedHoldWriter writer;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+    private final Map<String, ReservationHold> holds = new ConcurrentHashMap<>();
+
+    private ReentrantLock[] loadLocks;
+    private HoldExpiryWheel wheel;
+    private Counter reserved;
+    private Counter rejected;
+    private Counter confirmed;
+    private Counter released;
+    private Counter expired;
+
+    @PostConstruct
+    void start() {
+        loadLocks = new ReentrantLock[properties.getLockStripes()];
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new ReentrantLock();
+        }
+        reserved = meterRegistry.counter("trading.reservations", "event", "reserved");
+        rejected = meterRegistry.counter("trading.reservations", "event", "rejected");
+        confirmed = meterRegistry.counter("trading.reservations", "event", "confirmed");
+        released = meterRegistry.counter("trading.reservations", "event", "released");
+        expired = meterRegistry.counter("trading.reservations", "event", "expired");
+        Gauge.builder("trading.reservations.active", holds, Map::size).register(meterRegistry);
+
+        wheel = new HoldExpiryWheel(properties.getTickDuration(), properties.getWheelSize(), this::expire);
+        wheel.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+    }
+
+    /**
+     * Holds {@code quantity} of the product for {@code ttl}.
+     *
+     * @throws ReservationConflictException if less than {@code quantity} is available
+     */
+    public ReservationHold reserve(Long productId, int quantity, Duration ttl) {
+        ProductStock stock = stock(productId);
+        // Count the hold before taking stock so a concurrent resync errs towards less available.
+        stock.held.addAndGet(quantity);
+        if (!stock.tryTake(quantity)) {
+            stock.held.addAndGet(-quantity);
+            rejected.increment();
+            throw new ReservationConflictException("Only " + Math.max(0, stock.available.get())
+                    + " of product " + productId + " available");
+        }
+        ReservationHold hold = new ReservationHold(UUID.randomUUID().toString(), productId, quantity,
+                LocalDateTime.now().plus(ttl), System.nanoTime() + ttl.toNanos());
+        holds.put(hold.getId(), hold);
+        wheel.schedule(hold);
+        reserved.increment();
+        return hold;
+    }
+
+    /**
+     * The active (held) reservation with this id.
+     */
+    public Optional<ReservationHold> find(String reservationId) {
+        return Optional.ofNullable(holds.get(reservationId));
+    }
+
+    /**
+     * Turns the hold into a quantity decrement and waits, up to {@code confirm-timeout}, until it is
+     * committed.
+     *
+     * @throws ReservationConflictException    if the hold is no longer held, or the product no longer
+     *                                         has the quantity in the database
+     * @throws ReservationUnavailableException if the decrement was not written in time, or the writer
+     *                                         has stopped
+     */
+    public void confirm(ReservationHold hold) {
+        if (!hold.transition(ReservationHold.State.CONFIRMED)) {
+            throw notHeld(hold);
+        }
+        holds.remove(hold.getId());
+        ProductStock stock = stocks.get(hold.getProductId());
+        stock.pending.addAndGet(hold.getQuantity());
+        stock.held.addAndGet(-hold.getQuantity());
+
+        CompletableFuture<Boolean> write = writer.submit(hold);
+        boolean applied;
+        try {
+            applied = write.get(properties.getConfirmTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            stock.pending.addAndGet(-hold.getQuantity());
+            stock.available.addAndGet(hold.getQuantity());
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw undecided(hold, stock, write, "was not written within " + properties.getConfirmTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw undecided(hold, stock, write, "was interrupted");
+        }
+        stock.pending.addAndGet(-hold.getQuantity());
+        if (!applied) {
+            stock.stale = true;
+            throw new ReservationConflictException("Product " + hold.getProductId() + " no longer has "
+                    + hold.getQuantity() + " available");
+        }
+        confirmed.increment();
+    }
+
+    /**
+     * Returns the held quantity to the product.
+     *
+     * @throws ReservationConflictException if the hold is no longer held
+     */
+    public void release(ReservationHold hold) {
+        if (!hold.transition(ReservationHold.State.RELEASED)) {
+            throw notHeld(hold);
+        }
+        giveBack(hold);
+        released.increment();
+    }
+
+    /**
+     * Reloads the product's stock from the database on next use, once the current transaction
+     * commits. Call after writing the quantity directly.
+     */
+    public void quantityChanged(Long productId) {
+        ProductStock stock = stocks.get(productId);
+        if (stock == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stock.stale = true;
+                }
+            });
+        } else {
+            stock.stale = true;
+        }
+    }
+
+    /**
+     * The decrement may still commit: it stays pending until the write resolves, after which the
+     * stock is reloaded from the database.
+     */
+    private static ReservationUnavailableException undecided(ReservationHold hold, ProductStock stock,
+                                                             CompletableFuture<Boolean> write, String reason) {
+        write.whenComplete((applied, failure) -> {
+            stock.pending.addAndGet(-hold.getQuantity());
+            stock.stale = true;
+        });
+        return new ReservationUnavailableException("Confirmation of reservation " + hold.getId() + " " + reason
+                + "; check the product quantity before retrying");
+    }
+
+    private void expire(ReservationHold hold) {
+        if (hold.transition(ReservationHold.State.EXPIRED)) {
+            giveBack(hold);
+            expired.increment();
+        }
+    }
+
+    private void giveBack(ReservationHold hold) {
+        holds.remove(hold.getId());
+        ProductStock stock = stocks.get(hold.getProductId());
+        stock.held.addAndGet(-hold.getQuantity());
+        stock.available.addAndGet(hold.getQuantity());
+    }
+
+    private ProductStock stock(Long productId) {
+        ProductStock stock = stocks.get(productId);
+        if (stock != null && !stock.stale) {
+            return stock;
+        }
+        ReentrantLock lock = loadLocks[Math.floorMod(productId.hashCode(), loadLocks.length)];
+        lock.lock();
+        try {
+            stock = stocks.get(productId);
+            if (stock == null || stock.stale) {
+                int quantity = repository.findById(productId)
+                        .map(TradingProduct::getQuantity)
+                        .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
+                if (stock == null) {
+                    stock = new ProductStock();
+                    stocks.put(productId, stock);
+                }
+                stock.resync(quantity);
+            }
+            return stock;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ReservationConflictException notHeld(ReservationHold hold) {
+        return new ReservationConflictException("Reservation " + hold.getId() + " is already "
+                + hold.getState().name().toLowerCase());
+    }
+
+    /**
+     * {@code available = database quantity - held - confirmed but not yet written}.
+     */
+    private static final class ProductStock {
+
+        final AtomicLong available = new AtomicLong();
+        final AtomicLong held = new AtomicLong();
+        final AtomicLong pending = new AtomicLong();
+        volatile boolean stale;
+
+        void resync(int quantity) {
+            available.set(quantity - held.get() - pending.get());
+            stale = false;
+        }
+
+        boolean tryTake(int quantity) {
+            long current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.trading.reservation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.reservation.*} settings for inventory holds.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.reservation")
+public class ReservationProperties {
+
+    /**
+     * How long a hold lasts when the request does not name a TTL.
+     */
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    /**
+     * Longest TTL a request may ask for.
+     */
+    private Duration maxTtl = Duration.ofMinutes(10);
+
+    /**
+     * Expiry timer resolution; holds expire at most one tick late.
+     */
+    private Duration tickDuration = Duration.ofMillis(100);
+
+    /**
+     * Timer wheel buckets, rounded up to a power of two.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Locks striping the first load of a product's stock from the database.
+     */
+    private int lockStripes = 64;
+
+    /**
+     * Most confirmations written in one batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long a confirm waits for its decrement to commit before failing with 503.
+     */
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+
+}
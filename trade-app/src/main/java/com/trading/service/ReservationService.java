@@ -0,0 +1,74 @@
+package com.trading.service;
+
+import com.trading.dto.ReservationDTO;
+import com.trading.dto.ReservationRequestDTO;
+import com.trading.exception.InvalidRequestException;
+import com.trading.reservation.ReservationHold;
+import com.trading.reservation.ReservationLedger;
+import com.trading.reservation.ReservationProperties;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+public class ReservationService {
+
+    private final ReservationLedger ledger;
+    private final ReservationProperties properties;
+
+    /**
+     * Hold quantity of a product until confirmed, released or expired
+     */
+    public ReservationDTO reserve(Long productId, ReservationRequestDTO dto) {
+        Duration ttl = dto.getTtlSeconds() == null
+                ? properties.getDefaultTtl()
+                : Duration.ofSeconds(dto.getTtlSeconds());
+        if (ttl.compareTo(properties.getMaxTtl()) > 0) {
+            throw new InvalidRequestException("TTL must not exceed " + properties.getMaxTtl().toSeconds() + " seconds");
+        }
+        ReservationHold hold = ledger.reserve(productId, dto.getQuantity(), ttl);
+        return convertToDTO(hold, hold.getState());
+    }
+
+    /**
+     * Confirm a hold; returns once the product quantity has been decremented
+     */
+    public ReservationDTO confirm(Long productId, String reservationId) {
+        ReservationHold hold = findHold(productId, reservationId);
+        ledger.confirm(hold);
+        return convertToDTO(hold, ReservationHold.State.CONFIRMED);
+    }
+
+    /**
+     * Release a hold, returning its quantity
+     */
+    public ReservationDTO release(Long productId, String reservationId) {
+        ReservationHold hold = findHold(productId, reservationId);
+        ledger.release(hold);
+        return convertToDTO(hold, ReservationHold.State.RELEASED);
+    }
+
+    private ReservationHold findHold(Long productId, String reservationId) {
+        return ledger.find(reservationId)
+                .filter(hold -> hold.getProductId().equals(productId))
+                .orElseThrow(() -> new EntityNotFoundException("No active reservation " + reservationId
+                        + " for product " + productId));
+    }
+
+    /**
+     * Convert hold to DTO
+     */
+    private ReservationDTO convertToDTO(ReservationHold hold, ReservationHold.State state) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(hold.getId());
+        dto.setProductId(hold.getProductId());
+        dto.setQuantity(hold.getQuantity());
+        dto.setStatus(state.name());
+        dto.setExpiresAt(hold.getExpiresAt());
+        return dto;
+    }
+
+}
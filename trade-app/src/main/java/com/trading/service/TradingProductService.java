@@ -1,14 +1,35 @@
 package com.trading.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.trading.cache.ProductChangePublisher;
+import com.trading.cache.ProductNearCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.PriceUpdateDTO;
 import com.trading.dto.TradingProductDTO;
 import com.trading.entity.TradingProduct;
+import com.trading.exception.InvalidRequestException;
 import com.trading.repository.TradingProductRepository;
+import com.trading.reservation.ReservationLedger;
+import com.trading.writebehind.PriceUpdate;
+import com.trading.writebehind.PriceUpdateQueue;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,7 +37,41 @@ import java.util.stream.Collectors;
 @Transactional
 public class TradingProductService {
 
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = Map.of(
+            "productName", String.class,
+            "description", String.class,
+            "category", String.class,
+            "price", BigDecimal.class,
+            "quantity", Integer.class,
+            "status", String.class);
+
+    /**
+     * Column lengths of the patchable text fields, checked before the UPDATE is issued.
+     */
+    private static final Map<String, Integer> MAX_LENGTHS = Map.of(
+            "productName", 100,
+            "description", 500,
+            "category", 50,
+            "status", 50);
+
+    /**
+     * Integer digits of the {@code NUMERIC(10, 2)} price column.
+     */
+    private static final int MAX_PRICE_INTEGER_DIGITS = 8;
+
+    /**
+     * Fields selectable through {@code ?fields=}, in {@link TradingProductDTO} order.
+     */
+    private static final List<String> SELECTABLE_FIELDS =
+            List.of("id", "productName", "description", "category", "price", "quantity", "status");
+
     private final TradingProductRepository repository;
+    private final ObjectProvider<PriceUpdateQueue> priceUpdateQueue;
+    private final ReservationLedger reservationLedger;
+    private final ProductNearCache productCache;
+    private final ProductChangePublisher productChanges;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     /**
      * Create a new trading product
@@ -44,13 +99,34 @@ public class TradingProductService {
     }
 
     /**
-     * Get product by ID
+     * Get all trading products, selecting only the requested fields
      */
     @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProducts(String fields) {
+        return repository.findProjected(parseFields(fields), null);
+    }
+
+    /**
+     * Get product by ID, from the near-cache when possible. Joins a caller's transaction instead
+     * of starting one, so a cache hit does not check out a connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TradingProductDTO getProductById(Long id) {
-        TradingProduct product = repository.findById(id)
+        TradingProductDTO product = productCache.get(id,
+                () -> repository.findById(id).map(this::convertToDTO).orElse(null));
+        if (product == null) {
+            throw new EntityNotFoundException("Product not found with id: " + id);
+        }
+        return product;
+    }
+
+    /**
+     * Get product by ID, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductById(Long id, String fields) {
+        return repository.findProjectedById(id, parseFields(fields))
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
-        return convertToDTO(product);
     }
 
     /**
@@ -63,6 +139,14 @@ public class TradingProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get products by status, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductsByStatus(String status, String fields) {
+        return repository.findProjected(parseFields(fields), (root, query, cb) -> cb.equal(root.get("status"), status));
+    }
+
     /**
      * Get products by category
      */
@@ -73,6 +157,14 @@ public class TradingProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get products by category, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductsByCategory(String category, String fields) {
+        return repository.findProjectedByCategory(category, parseFields(fields));
+    }
+
     /**
      * Search products by name
      */
@@ -83,6 +175,19 @@ public class TradingProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search products by name, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchByProductName(String productName, String fields) {
+        String pattern = "%" + productName.toUpperCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return repository.findProjected(parseFields(fields),
+                (root, query, cb) -> cb.like(cb.upper(root.<String>get("productName")), pattern, '\\'));
+    }
+
     /**
      * Update trading product
      */
@@ -100,17 +205,134 @@ public class TradingProductService {
         }
 
         TradingProduct updatedProduct = repository.save(product);
+        reservationLedger.quantityChanged(id);
+        productChanges.changed(id);
         return convertToDTO(updatedProduct);
     }
 
+    /**
+     * Apply a JSON Merge Patch (RFC 7396). Only the fields present in the patch are written,
+     * in a single UPDATE that also returns the row. Fields cannot be removed since all are required.
+     */
+    public TradingProductDTO patchProduct(Long id, JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new InvalidRequestException("Merge patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            changes.put(field.getKey(), readPatchValue(field.getKey(), field.getValue()));
+        }
+        if (changes.isEmpty()) {
+            return getProductById(id);
+        }
+        if (changes.containsKey("quantity")) {
+            reservationLedger.quantityChanged(id);
+        }
+        productChanges.changed(id);
+        return repository.patch(id, changes)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+    }
+
+    /**
+     * Update price and/or quantity. Returns the updated product, or empty when write-behind is
+     * enabled and the update was only journaled for a later batch flush.
+     */
+    public Optional<TradingProductDTO> updatePrice(Long id, PriceUpdateDTO dto) {
+        PriceUpdateQueue queue = priceUpdateQueue.getIfAvailable();
+        if (queue != null) {
+            queue.submit(new PriceUpdate(id, dto.getPrice(), dto.getQuantity()));
+            return Optional.empty();
+        }
+
+        TradingProduct product = repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+        if (dto.getPrice() != null) {
+            product.setPrice(dto.getPrice());
+        }
+        if (dto.getQuantity() != null) {
+            product.setQuantity(dto.getQuantity());
+            reservationLedger.quantityChanged(id);
+        }
+        productChanges.changed(id);
+        return Optional.of(convertToDTO(repository.save(product)));
+    }
+
     /**
      * Delete trading product
      */
     public void deleteProduct(Long id) {
-        if (!repository.existsById(id)) {
+        if (repository.deleteProductById(id) == 0) {
             throw new EntityNotFoundException("Product not found with id: " + id);
         }
-        repository.deleteById(id);
+        reservationLedger.quantityChanged(id);
+        productChanges.changed(id);
+    }
+
+    /**
+     * Parse a comma-separated {@code fields} parameter into DTO order, rejecting unknown names
+     */
+    private List<String> parseFields(String fields) {
+        List<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .toList();
+        List<String> unknown = requested.stream()
+                .filter(field -> !SELECTABLE_FIELDS.contains(field))
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new InvalidRequestException("Unknown fields " + unknown + ", selectable fields are " + SELECTABLE_FIELDS);
+        }
+        if (requested.isEmpty()) {
+            throw new InvalidRequestException("fields must name at least one of " + SELECTABLE_FIELDS);
+        }
+        List<String> selected = new ArrayList<>(SELECTABLE_FIELDS);
+        selected.retainAll(requested);
+        return selected;
+    }
+
+    private Object readPatchValue(String field, JsonNode node) {
+        Class<?> type = PATCHABLE_FIELDS.get(field);
+        if (type == null) {
+            throw new InvalidRequestException("Field cannot be patched: " + field);
+        }
+        if (node.isNull()) {
+            throw new InvalidRequestException("Field cannot be removed: " + field);
+        }
+        // Checked before conversion, which would coerce 1.5 to 1 or 42 to "42".
+        if (!hasJsonType(node, type)) {
+            throw new InvalidRequestException("Invalid value for " + field + ": " + node);
+        }
+        Object value;
+        try {
+            value = objectMapper.convertValue(node, type);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid value for " + field + ": " + node);
+        }
+        Set<ConstraintViolation<TradingProductDTO>> violations = validator.validateValue(TradingProductDTO.class, field, value);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.iterator().next().getMessage());
+        }
+        Integer maxLength = MAX_LENGTHS.get(field);
+        if (maxLength != null && ((String) value).length() > maxLength) {
+            throw new InvalidRequestException(field + " must be at most " + maxLength + " characters");
+        }
+        if (value instanceof BigDecimal price && price.precision() - price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            throw new InvalidRequestException("Price must have at most " + MAX_PRICE_INTEGER_DIGITS + " integer digits");
+        }
+        return value;
+    }
+
+    private static boolean hasJsonType(JsonNode node, Class<?> type) {
+        if (type == String.class) {
+            return node.isTextual();
+        }
+        if (type == Integer.class) {
+            return node.isIntegralNumber() && node.canConvertToInt();
+        }
+        return node.isNumber();
     }
 
     /**
@@ -0,0 +1,35 @@
+package com.trading.sharding;
+
+import java.util.Map;
+
+/**
+ * Places categories on explicitly assigned shards, so large categories can be given a shard of
+ * their own. Categories without an assignment fall back to {@link HashShardMap}.
+ */
+public class CategoryShardMap implements ShardMap {
+
+    private final Map<String, Integer> assignments;
+    private final HashShardMap fallback;
+
+    public CategoryShardMap(Map<String, Integer> assignments, int shardCount) {
+        assignments.forEach((category, shard) -> {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Category " + category + " is assigned to unknown shard " + shard);
+            }
+        });
+        this.assignments = Map.copyOf(assignments);
+        this.fallback = new HashShardMap(shardCount);
+    }
+
+    @Override
+    public int shardCount() {
+        return fallback.shardCount();
+    }
+
+    @Override
+    public int shardFor(String category) {
+        Integer shard = assignments.get(category);
+        return shard != null ? shard : fallback.shardFor(category);
+    }
+
+}
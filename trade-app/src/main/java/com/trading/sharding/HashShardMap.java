@@ -0,0 +1,26 @@
+package com.trading.sharding;
+
+/**
+ * Spreads categories over the shards by hash. {@link String#hashCode()} is specified, so every
+ * instance agrees on the placement.
+ */
+public class HashShardMap implements ShardMap {
+
+    private final int shardCount;
+
+    public HashShardMap(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(String category) {
+        int hash = category.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+}
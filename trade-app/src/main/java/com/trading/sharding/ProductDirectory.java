@@ -0,0 +1,152 @@
+package com.trading.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Global product name registry on shard 0. Its unique constraint keeps product names unique across
+ * shards, and its sequence numbers every product so ids never collide between shards.
+ * <p>
+ * Directory changes for products on other shards commit on their own, ahead of the shard
+ * transaction, so a concurrent duplicate fails fast with a
+ * {@link org.springframework.dao.DuplicateKeyException}. If the shard transaction then rolls back,
+ * the change is compensated after completion. Products on shard 0 share the shard transaction
+ * instead: a separate one would hold a second connection from the same pool while the first waits
+ * on it, which exhausts a small pool under load.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class ProductDirectory {
+
+    static final int DIRECTORY_SHARD = 0;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO trading_product_directory (product_name, shard) VALUES (?, ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM trading_product_directory WHERE seq = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductDirectory(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Registers the name of a new product on {@code shard} and returns the product's id.
+     */
+    public long reserve(String productName, int shard) {
+        boolean joined = joinsTransaction(shard);
+        long sequence = inDirectory(joined, () -> {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"seq"});
+                ps.setString(1, productName);
+                ps.setInt(2, shard);
+                return ps;
+            }, keyHolder);
+            return keyHolder.getKey().longValue();
+        });
+        if (!joined) {
+            onRollback(() -> remove(sequence));
+        }
+        return ShardIds.compose(sequence, shard);
+    }
+
+    /**
+     * Moves the product's directory entry to a new name; a no-op when the name is unchanged.
+     */
+    public void rename(long id, String productName) {
+        long sequence = ShardIds.sequenceOf(id);
+        boolean joined = joinsTransaction(ShardIds.shardOf(id));
+        String previous = inDirectory(joined, () -> {
+            List<String> names = jdbcTemplate.queryForList(
+                    "SELECT product_name FROM trading_product_directory WHERE seq = ?", String.class, sequence);
+            if (names.isEmpty() || names.get(0).equals(productName)) {
+                return null;
+            }
+            jdbcTemplate.update("UPDATE trading_product_directory SET product_name = ? WHERE seq = ?",
+                    productName, sequence);
+            return names.get(0);
+        });
+        if (previous != null && !joined) {
+            onRollback(() -> inDirectory(false, () -> jdbcTemplate.update(
+                    "UPDATE trading_product_directory SET product_name = ? WHERE seq = ? AND product_name = ?",
+                    previous, sequence, productName)));
+        }
+    }
+
+    /**
+     * Frees the product's name along with the delete: in the same transaction on shard 0, else
+     * once the surrounding transaction has committed.
+     */
+    public void release(long id) {
+        if (joinsTransaction(ShardIds.shardOf(id))) {
+            inDirectory(true, () -> jdbcTemplate.update(DELETE_SQL, ShardIds.sequenceOf(id)));
+            return;
+        }
+        afterCompletion(TransactionSynchronization.STATUS_COMMITTED, () -> remove(ShardIds.sequenceOf(id)));
+    }
+
+    private void remove(long sequence) {
+        inDirectory(false, () -> jdbcTemplate.update(DELETE_SQL, sequence));
+    }
+
+    /**
+     * Whether the current transaction is on the directory shard, which is where it writes a
+     * product of {@code productShard}.
+     */
+    private static boolean joinsTransaction(int productShard) {
+        return productShard == DIRECTORY_SHARD && TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private <T> T inDirectory(boolean joined, Supplier<T> action) {
+        if (joined) {
+            return ShardContext.callOn(DIRECTORY_SHARD, action);
+        }
+        return ShardContext.callOn(DIRECTORY_SHARD, () -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    private void onRollback(Runnable compensation) {
+        afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK, compensation);
+    }
+
+    private void afterCompletion(int expectedStatus, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (expectedStatus == TransactionSynchronization.STATUS_COMMITTED) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != expectedStatus) {
+                    return;
+                }
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    log.warn("Could not update the product directory after the shard transaction completed", e);
+                }
+            }
+        });
+    }
+
+}
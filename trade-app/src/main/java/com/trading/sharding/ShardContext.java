@@ -0,0 +1,44 @@
+package com.trading.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's next connection is routed to. A transaction stays on the shard
+ * its first statement ran against, so the shard must be chosen before any SQL is issued.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The selected shard, or {@code null} when none is (connections then go to shard 0).
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void runOn(int shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+}
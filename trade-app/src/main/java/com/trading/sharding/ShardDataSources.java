@@ -0,0 +1,62 @@
+package com.trading.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One connection pool per shard. These are deliberately not beans: the application sees only the
+ * routing {@link DataSource}, and the pools are closed with this holder.
+ */
+public class ShardDataSources implements DisposableBean {
+
+    private final List<ShardingProperties.Shard> shards;
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    public ShardDataSources(List<ShardingProperties.Shard> shards) {
+        if (shards.isEmpty() || shards.size() > ShardIds.MAX_SHARDS) {
+            throw new IllegalStateException("trading.sharding.shards must list between 1 and "
+                    + ShardIds.MAX_SHARDS + " shards, found " + shards.size());
+        }
+        this.shards = List.copyOf(shards);
+        for (ShardingProperties.Shard shard : shards) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + dataSources.size());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSources.add(dataSource);
+        }
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    /**
+     * Unpooled connections to {@code shard}, for Flyway: it holds a connection of its own next to
+     * the one it migrates on, which a pool of one could never hand out.
+     */
+    public DataSource migrationDataSource(int shard) {
+        ShardingProperties.Shard properties = shards.get(shard);
+        return new DriverManagerDataSource(properties.getUrl(), properties.getUsername(), properties.getPassword());
+    }
+
+    @Override
+    public void destroy() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+}
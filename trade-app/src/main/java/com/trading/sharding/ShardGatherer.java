@@ -0,0 +1,84 @@
+package com.trading.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a read on every shard in parallel, each in its own read-only transaction, and returns the
+ * per-shard results in shard order. Reads see committed data only, not the caller's transaction.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class ShardGatherer {
+
+    private final ShardMap shardMap;
+    private final ShardingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    public ShardGatherer(ShardMap shardMap, ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this.shardMap = shardMap;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shardMap.shardCount() * 4, runnable -> {
+            Thread thread = new Thread(runnable, "shard-gather-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> List<T> onAllShards(IntFunction<T> query) {
+        List<Future<T>> futures = new ArrayList<>(shardMap.shardCount());
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int target = shard;
+            futures.add(executor.submit(() -> ShardContext.callOn(target,
+                    () -> transactionTemplate.execute(status -> query.apply(target)))));
+        }
+
+        long deadline = System.nanoTime() + properties.getScatterTimeout().toNanos();
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Shard query did not finish within " + properties.getScatterTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for shard query");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.trading.sharding;
+
+/**
+ * Product ids carry their shard in the low bits: {@code id = sequence * MAX_SHARDS + shard}, where
+ * the sequence comes from the product directory on shard 0. Lookups by id therefore need no
+ * directory round trip.
+ */
+public final class ShardIds {
+
+    public static final int MAX_SHARDS = 64;
+
+    private ShardIds() {
+    }
+
+    public static long compose(long sequence, int shard) {
+        return sequence * MAX_SHARDS + shard;
+    }
+
+    public static int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) MAX_SHARDS);
+    }
+
+    public static long sequenceOf(long id) {
+        return Math.floorDiv(id, MAX_SHARDS);
+    }
+
+}
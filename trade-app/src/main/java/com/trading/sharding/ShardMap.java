@@ -0,0 +1,16 @@
+package com.trading.sharding;
+
+/**
+ * Decides which shard owns the products of a category. Declare a bean of this type to replace
+ * the one selected by {@code trading.sharding.strategy}.
+ */
+public interface ShardMap {
+
+    int shardCount();
+
+    /**
+     * @return a shard index in {@code [0, shardCount())}
+     */
+    int shardFor(String category);
+
+}
@@ -0,0 +1,206 @@
+package com.trading.sharding;
+
+import com.trading.entity.TradingProduct;
+import com.trading.exception.InvalidRequestException;
+import com.trading.repository.TradingProductRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Sharding layer in front of the Spring Data {@link TradingProductRepository}. Calls keyed by id or
+ * category run against the owning shard; the other queries scatter to all shards through
+ * {@link ShardGatherer} and merge the results. New products get their id and name reservation from
+ * the {@link ProductDirectory} and are inserted on their category's shard.
+ * <p>
+ * A product's shard is part of its id, so changing the category to one owned by another shard is
+ * rejected.
+ * <p>
+ * {@link TradingProductRepository} declares only the methods routed here, so a new repository
+ * method must be added to one of the routes below before callers can use it.
+ */
+final class ShardRoutingRepository implements InvocationHandler {
+
+    private static final Set<String> BY_ID = Set.of("findById", "findProjectedById", "existsById", "deleteProductById");
+
+    private static final Set<String> SCATTER =
+            Set.of("findAll", "findByStatus", "findByProductNameContainingIgnoreCase", "findProjected", "count");
+
+    private static final String INSERT_SQL = "INSERT INTO trading_products "
+            + "(id, product_name, description, category, price, quantity, status, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TradingProductRepository delegate;
+    private final ShardMap shardMap;
+    private final ProductDirectory directory;
+    private final ShardGatherer gatherer;
+    private final JdbcTemplate jdbcTemplate;
+
+    private ShardRoutingRepository(TradingProductRepository delegate, ShardMap shardMap, ProductDirectory directory,
+                                   ShardGatherer gatherer, JdbcTemplate jdbcTemplate) {
+        this.delegate = delegate;
+        this.shardMap = shardMap;
+        this.directory = directory;
+        this.gatherer = gatherer;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static TradingProductRepository create(TradingProductRepository delegate, ShardMap shardMap,
+                                           ProductDirectory directory, ShardGatherer gatherer,
+                                           JdbcTemplate jdbcTemplate) {
+        return (TradingProductRepository) Proxy.newProxyInstance(
+                TradingProductRepository.class.getClassLoader(),
+                new Class<?>[]{TradingProductRepository.class},
+                new ShardRoutingRepository(delegate, shardMap, directory, gatherer, jdbcTemplate));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (name) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Sharded " + delegate;
+            };
+        }
+        int arity = args == null ? 0 : args.length;
+
+        if (name.equals("save") && arity == 1 && args[0] instanceof TradingProduct product) {
+            return save(method, product);
+        }
+        if (name.equals("patch") && arity == 2) {
+            return patch(method, args);
+        }
+        if (name.equals("findByCategory") || name.equals("findProjectedByCategory")) {
+            return ShardContext.callOn(shardMap.shardFor((String) args[0]), () -> call(method, args));
+        }
+        if (BY_ID.contains(name)) {
+            Long id = (Long) args[0];
+            if (!isKnownShard(id)) {
+                return absent(method.getReturnType());
+            }
+            Object result = ShardContext.callOn(ShardIds.shardOf(id), () -> call(method, args));
+            if (name.equals("deleteProductById") && (Integer) result > 0) {
+                directory.release(id);
+            }
+            return result;
+        }
+        if (SCATTER.contains(name)) {
+            return gather(method, args);
+        }
+        throw new UnsupportedOperationException(name + " has no shard route in the sharded product repository");
+    }
+
+    private TradingProduct save(Method method, TradingProduct product) {
+        int target = shardMap.shardFor(product.getCategory());
+        if (product.getId() == null) {
+            return insert(product, target);
+        }
+        int shard = ShardIds.shardOf(product.getId());
+        requireSameShard(shard, target, product.getCategory());
+        directory.rename(product.getId(), product.getProductName());
+        return (TradingProduct) ShardContext.callOn(shard, () -> call(method, new Object[]{product}));
+    }
+
+    private TradingProduct insert(TradingProduct product, int shard) {
+        long id = directory.reserve(product.getProductName(), shard);
+        LocalDateTime now = LocalDateTime.now();
+        product.setId(id);
+        product.setStatus("ACTIVE");
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        ShardContext.runOn(shard, () -> jdbcTemplate.update(INSERT_SQL,
+                id,
+                product.getProductName(),
+                product.getDescription(),
+                product.getCategory(),
+                product.getPrice(),
+                product.getQuantity(),
+                product.getStatus(),
+                Timestamp.valueOf(now),
+                Timestamp.valueOf(now)));
+        return product;
+    }
+
+    private Object patch(Method method, Object[] args) {
+        Long id = (Long) args[0];
+        if (!isKnownShard(id)) {
+            return Optional.empty();
+        }
+        int shard = ShardIds.shardOf(id);
+        Map<?, ?> attributes = (Map<?, ?>) args[1];
+        if (attributes.get("category") instanceof String category) {
+            requireSameShard(shard, shardMap.shardFor(category), category);
+        }
+        if (attributes.get("productName") instanceof String productName) {
+            directory.rename(id, productName);
+        }
+        return ShardContext.callOn(shard, () -> call(method, args));
+    }
+
+    private Object gather(Method method, Object[] args) {
+        List<Object> parts = gatherer.onAllShards(shard -> call(method, args));
+        if (method.getReturnType() == long.class) {
+            return parts.stream().mapToLong(part -> (Long) part).sum();
+        }
+        List<Object> merged = new ArrayList<>();
+        parts.forEach(part -> merged.addAll((List<?>) part));
+        if (!merged.isEmpty() && merged.get(0) instanceof TradingProduct) {
+            // Ids follow the global directory sequence, so this restores creation order.
+            merged.sort(Comparator.comparing(product -> ((TradingProduct) product).getId()));
+        }
+        return merged;
+    }
+
+    private void requireSameShard(int shard, int target, String category) {
+        if (shard != target) {
+            throw new InvalidRequestException("Category " + category + " belongs to another shard; "
+                    + "moving a product between shards is not supported");
+        }
+    }
+
+    private boolean isKnownShard(Long id) {
+        return id != null && ShardIds.shardOf(id) < shardMap.shardCount();
+    }
+
+    private static Object absent(Class<?> returnType) {
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        return 0;
+    }
+
+    private Object call(Method method, Object[] args) {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
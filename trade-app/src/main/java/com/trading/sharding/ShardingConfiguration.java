@@ -0,0 +1,97 @@
+package com.trading.sharding;
+
+import com.trading.repository.TradingProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single {@code spring.datasource} with {@code trading.sharding.shards} when
+ * {@code trading.sharding.enabled=true}. Connections are fetched lazily so the shard can be chosen
+ * after a transaction has begun, right before its first statement.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        return new ShardDataSources(properties.getShards());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shards.get(0));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardMap shardMap(ShardingProperties properties) {
+        int shardCount = properties.getShards().size();
+        return switch (properties.getStrategy()) {
+            case HASH -> new HashShardMap(shardCount);
+            case CATEGORY -> new CategoryShardMap(properties.getCategories(), shardCount);
+        };
+    }
+
+    /**
+     * Applies the regular migrations to every shard, then the product directory to shard 0.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardDataSources shards) {
+        return flyway -> {
+            for (int shard = 0; shard < shards.size(); shard++) {
+                log.info("Migrating shard {}", shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shards.migrationDataSource(shard))
+                        .load()
+                        .migrate();
+            }
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(shards.migrationDataSource(ProductDirectory.DIRECTORY_SHARD))
+                    .locations("classpath:db/sharding")
+                    .table("flyway_directory_history")
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+        };
+    }
+
+    @Bean
+    @Primary
+    public TradingProductRepository shardedTradingProductRepository(
+            @Qualifier("tradingProductRepository") TradingProductRepository repository,
+            ShardMap shardMap, ShardDataSources shards, ProductDirectory directory,
+            ShardGatherer gatherer, JdbcTemplate jdbcTemplate) {
+        if (shardMap.shardCount() != shards.size()) {
+            throw new IllegalStateException("ShardMap covers " + shardMap.shardCount()
+                    + " shards but " + shards.size() + " are configured");
+        }
+        return ShardRoutingRepository.create(repository, shardMap, directory, gatherer, jdbcTemplate);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.trading.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code trading.sharding.*} settings. When enabled, the {@code shards} replace
+ * {@code spring.datasource}; shard 0 also holds the product directory.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.sharding")
+public class ShardingProperties {
+
+    /**
+     * Spread products over {@code shards} by category.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Built-in {@link ShardMap}: CATEGORY uses {@code categories} and hashes the rest, HASH hashes all.
+     */
+    private Strategy strategy = Strategy.CATEGORY;
+
+    /**
+     * Explicit category to shard index assignments.
+     */
+    private Map<String, Integer> categories = new HashMap<>();
+
+    /**
+     * Connection settings per shard, in shard index order.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * How long a scatter-gather query waits for the slowest shard.
+     */
+    private Duration scatterTimeout = Duration.ofSeconds(10);
+
+    public enum Strategy {
+        CATEGORY,
+        HASH
+    }
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+}
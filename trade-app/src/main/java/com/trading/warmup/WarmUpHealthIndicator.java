@@ -0,0 +1,40 @@
+package com.trading.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE while the JIT warm-up is pending or running. Included in the readiness group, so
+ * Kubernetes keeps the pod out of the Service until warm-up finishes.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private volatile Health health = Health.outOfService().withDetail("state", "PENDING").build();
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    void running(int iterations) {
+        health = Health.outOfService()
+                .withDetail("state", "RUNNING")
+                .withDetail("iterations", iterations)
+                .build();
+    }
+
+    void completed(WarmUpResult result) {
+        health = Health.up()
+                .withDetail("state", "COMPLETED")
+                .withDetail("reason", result.getReason())
+                .withDetail("iterations", result.getIterations())
+                .withDetail("durationMs", result.getDuration().toMillis())
+                .withDetail("compilationTimeMs", result.getCompilationTimeMs())
+                .withDetail("firstIterationsAvgMs", result.getFirstIterationsAvgMs())
+                .withDetail("lastIterationsAvgMs", result.getLastIterationsAvgMs())
+                .build();
+    }
+
+}
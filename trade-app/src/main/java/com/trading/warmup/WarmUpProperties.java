@@ -0,0 +1,47 @@
+package com.trading.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.warmup.*} settings for the JIT warm-up run before readiness.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.warmup")
+public class WarmUpProperties {
+
+    /**
+     * Run synthetic traffic before reporting ready.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the warm-up duration.
+     */
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    /**
+     * Upper bound on the number of synthetic iterations.
+     */
+    private int maxIterations = 20_000;
+
+    /**
+     * Iterations to run before compilation may be considered stable.
+     */
+    private int minIterations = 500;
+
+    /**
+     * Window over which JIT compilation time is sampled.
+     */
+    private Duration stabilizationWindow = Duration.ofSeconds(2);
+
+    /**
+     * Compilation is stable once a window adds no more than this much JIT time.
+     */
+    private Duration stableCompilationTime = Duration.ofMillis(20);
+
+}
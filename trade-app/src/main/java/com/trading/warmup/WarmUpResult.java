@@ -0,0 +1,19 @@
+package com.trading.warmup;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a warm-up run. The first/last averages cover the first and last
+ * {@link WarmUpRunner#SAMPLE_SIZE} iterations and show how much the JIT sped them up.
+ */
+@Value
+public class WarmUpResult {
+    String reason;
+    int iterations;
+    Duration duration;
+    long compilationTimeMs;
+    double firstIterationsAvgMs;
+    double lastIterationsAvgMs;
+}
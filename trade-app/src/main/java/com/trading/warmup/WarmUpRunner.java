@@ -0,0 +1,212 @@
+package com.trading.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.controller.TradingProductController;
+import com.trading.dto.TradingProductDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Drives synthetic traffic through the controller, service, repository and Jackson paths once the
+ * application is ready, so the hot methods are JIT-compiled before the pod receives real traffic.
+ * Each iteration runs inside a transaction that is always rolled back, leaving no data behind.
+ * Stops when JIT compilation time settles or the time/iteration budget is spent, then flips
+ * {@link WarmUpHealthIndicator} to UP.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpRunner {
+
+    static final int SAMPLE_SIZE = 100;
+
+    private static final int MAX_CONSECUTIVE_FAILURES = 10;
+
+    private final WarmUpProperties properties;
+    private final WarmUpHealthIndicator healthIndicator;
+    private final TradingProductController controller;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Keeps synthetic names unique across instances warming up against the same database.
+     */
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            complete(new WarmUpResult("disabled", 0, Duration.ZERO, 0, 0, 0));
+            return;
+        }
+        Thread thread = new Thread(this::run, "jit-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        log.info("Starting JIT warm-up (max {} iterations, max {})",
+                properties.getMaxIterations(), properties.getMaxDuration());
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimed = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long compilationStart = jitTimed ? jit.getTotalCompilationTime() : 0;
+
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        long window = properties.getStabilizationWindow().toNanos();
+        long stableMs = properties.getStableCompilationTime().toMillis();
+        long windowStart = start;
+        long windowCompilation = compilationStart;
+
+        long[] first = new long[SAMPLE_SIZE];
+        long[] last = new long[SAMPLE_SIZE];
+        int iterations = 0;
+        int failures = 0;
+        String reason;
+
+        while (true) {
+            long now = System.nanoTime();
+            if (iterations >= properties.getMaxIterations()) {
+                reason = "iteration budget reached";
+                break;
+            }
+            if (now - deadline >= 0) {
+                reason = "time budget reached";
+                break;
+            }
+            try {
+                iteration(iterations);
+                failures = 0;
+            } catch (RuntimeException e) {
+                if (++failures >= MAX_CONSECUTIVE_FAILURES) {
+                    log.warn("Aborting JIT warm-up after {} consecutive failures", failures, e);
+                    reason = "aborted: " + e.getMessage();
+                    break;
+                }
+                continue;
+            }
+            long elapsed = System.nanoTime() - now;
+            if (iterations < SAMPLE_SIZE) {
+                first[iterations] = elapsed;
+            }
+            last[iterations % SAMPLE_SIZE] = elapsed;
+            iterations++;
+            if (iterations % SAMPLE_SIZE == 0) {
+                healthIndicator.running(iterations);
+            }
+
+            if (jitTimed && System.nanoTime() - windowStart >= window) {
+                long compilation = jit.getTotalCompilationTime();
+                if (iterations >= properties.getMinIterations() && compilation - windowCompilation <= stableMs) {
+                    reason = "compilation stabilized";
+                    break;
+                }
+                windowStart = System.nanoTime();
+                windowCompilation = compilation;
+            }
+        }
+
+        int samples = Math.min(iterations, SAMPLE_SIZE);
+        complete(new WarmUpResult(
+                reason,
+                iterations,
+                Duration.ofNanos(System.nanoTime() - start),
+                jitTimed ? jit.getTotalCompilationTime() - compilationStart : 0,
+                averageMillis(first, samples),
+                averageMillis(last, samples)));
+    }
+
+    /**
+     * One pass over the product API: create, read (full and projected), query, update, patch and
+     * delete a synthetic product, serializing every response. Rolled back unconditionally.
+     */
+    private void iteration(int n) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            String marker = "WARMUP-" + runId + "-" + n;
+            TradingProductDTO dto = new TradingProductDTO(null, "Warm-up " + marker,
+                    "Synthetic warm-up product", marker, new BigDecimal("100.00"), 10, null);
+
+            TradingProductDTO created = controller.createProduct(dto).getBody();
+            serialize(created);
+            Long id = created.getId();
+            serialize(controller.getProductById(id, null).getBody());
+            serialize(controller.getProductById(id, "id,productName,price").getBody());
+            serialize(controller.getProductsByCategory(marker, null).getBody());
+            serialize(controller.getProductsByCategory(marker, "id,price,quantity").getBody());
+            serialize(controller.getProductsByStatus(marker, null).getBody());
+            serialize(controller.searchByProductName(marker, null).getBody());
+
+            dto.setPrice(new BigDecimal("101.00"));
+            serialize(controller.updateProduct(id, dto).getBody());
+            serialize(controller.patchProduct(id, objectMapper.createObjectNode().put("quantity", 11)).getBody());
+            controller.deleteProduct(id);
+        });
+    }
+
+    private void serialize(Object body) {
+        try {
+            objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void complete(WarmUpResult result) {
+        Timer.builder("trading.warmup.duration")
+                .description("Time spent in JIT warm-up before readiness")
+                .register(meterRegistry)
+                .record(result.getDuration());
+        Gauge.builder("trading.warmup.iterations", result::getIterations)
+                .description("Synthetic warm-up iterations executed")
+                .register(meterRegistry);
+        Gauge.builder("trading.warmup.compilation.time", result::getCompilationTimeMs)
+                .description("JIT compilation time accrued during warm-up")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("trading.warmup.iteration.latency", result::getFirstIterationsAvgMs)
+                .description("Average iteration latency at the start and end of warm-up")
+                .tag("sample", "first")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("trading.warmup.iteration.latency", result::getLastIterationsAvgMs)
+                .description("Average iteration latency at the start and end of warm-up")
+                .tag("sample", "last")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        healthIndicator.completed(result);
+        log.info("JIT warm-up finished ({}): {} iterations in {} ms, {} ms compiling, avg iteration {} ms -> {} ms",
+                result.getReason(), result.getIterations(), result.getDuration().toMillis(),
+                result.getCompilationTimeMs(),
+                String.format("%.2f", result.getFirstIterationsAvgMs()),
+                String.format("%.2f", result.getLastIterationsAvgMs()));
+    }
+
+    private static double averageMillis(long[] samples, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / (double) count / 1_000_000;
+    }
+
+}
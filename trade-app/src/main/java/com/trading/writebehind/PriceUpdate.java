@@ -0,0 +1,24 @@
+package com.trading.writebehind;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * The latest price and/or quantity for a product. A {@code null} field leaves the column unchanged.
+ */
+@Value
+public class PriceUpdate {
+    Long productId;
+    BigDecimal price;
+    Integer quantity;
+
+    /**
+     * This update applied on top of {@code earlier} for the same product: a field this update
+     * leaves unchanged keeps the earlier update's value.
+     */
+    PriceUpdate after(PriceUpdate earlier) {
+        return new PriceUpdate(productId, price != null ? price : earlier.price,
+                quantity != null ? quantity : earlier.quantity);
+    }
+}
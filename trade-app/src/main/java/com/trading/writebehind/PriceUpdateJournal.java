@@ -0,0 +1,207 @@
+package com.trading.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of accepted price updates, one {@code id,price,quantity,crc} line per update,
+ * split into numbered segment files. The writer rotates to a new segment before each flush;
+ * sealed segments are deleted once their updates are in the database, and any segments left
+ * behind by a crash are replayed on startup.
+ * <p>
+ * Appends are made durable with group commit: {@link #sync(long)} forces the file only if no
+ * other caller has already forced past the given position.
+ * <p>
+ * Updates the database rejects are appended, in the same record format, to
+ * {@code dead-letter.log}, which is never replayed.
+ */
+@Slf4j
+class PriceUpdateJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    private final Path directory;
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private final Object syncMonitor = new Object();
+    private FileChannel channel;
+    private long segmentIndex;
+    private volatile long written;
+    private long synced;
+
+    PriceUpdateJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Reads all segments left from a previous run, in write order, and marks them sealed.
+     * Must be called before the first {@link #rotate()}.
+     */
+    List<PriceUpdate> recover() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> segmentIndex(file) >= 0)
+                    .sorted(Comparator.comparingLong(PriceUpdateJournal::segmentIndex))
+                    .toList();
+        }
+        List<PriceUpdate> updates = new ArrayList<>();
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    PriceUpdate update = parse(line);
+                    if (update == null) {
+                        log.warn("Skipping torn or corrupt journal record in {}: {}", segment, line);
+                    } else {
+                        updates.add(update);
+                    }
+                }
+            }
+            sealedSegments.add(segment);
+            segmentIndex = Math.max(segmentIndex, segmentIndex(segment));
+        }
+        return updates;
+    }
+
+    /**
+     * Appends an update and returns the journal position to pass to {@link #sync(long)}.
+     * Callers serialize appends and rotations.
+     */
+    long append(PriceUpdate update) throws IOException {
+        byte[] bytes = format(update).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += bytes.length;
+        return written;
+    }
+
+    /**
+     * Blocks until everything up to {@code position} is on disk.
+     */
+    void sync(long position) throws IOException {
+        synchronized (syncMonitor) {
+            if (synced >= position) {
+                return;
+            }
+            long target = written;
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    /**
+     * Seals the current segment, starts a new one and returns every sealed segment not yet deleted.
+     * Callers serialize appends and rotations.
+     */
+    List<Path> rotate() throws IOException {
+        synchronized (syncMonitor) {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                synced = written;
+                sealedSegments.add(segmentPath(segmentIndex));
+            }
+            segmentIndex++;
+            channel = FileChannel.open(segmentPath(segmentIndex),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return new ArrayList<>(sealedSegments);
+        }
+    }
+
+    /**
+     * Deletes sealed segments whose updates have been flushed.
+     */
+    void delete(List<Path> segments) throws IOException {
+        synchronized (syncMonitor) {
+            for (Path segment : segments) {
+                Files.deleteIfExists(segment);
+                sealedSegments.remove(segment);
+            }
+        }
+    }
+
+    /**
+     * Durably records an update that can never be applied, so it is not lost when the segment
+     * holding it is deleted.
+     */
+    void deadLetter(PriceUpdate update) throws IOException {
+        Files.writeString(directory.resolve(DEAD_LETTER_FILE), format(update), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND,
+                StandardOpenOption.DSYNC);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncMonitor) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(SEGMENT_PREFIX + index + SEGMENT_SUFFIX);
+    }
+
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String format(PriceUpdate update) {
+        String record = update.getProductId() + ","
+                + (update.getPrice() == null ? "" : update.getPrice().toPlainString()) + ","
+                + (update.getQuantity() == null ? "" : update.getQuantity());
+        return record + "," + checksum(record) + "\n";
+    }
+
+    private static String checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static PriceUpdate parse(String line) {
+        int separator = line.lastIndexOf(',');
+        if (separator < 0 || !line.substring(separator + 1).equals(checksum(line.substring(0, separator)))) {
+            return null;
+        }
+        String[] fields = line.substring(0, separator).split(",", -1);
+        if (fields.length != 3) {
+            return null;
+        }
+        try {
+            return new PriceUpdate(Long.valueOf(fields[0]),
+                    fields[1].isEmpty() ? null : new BigDecimal(fields[1]),
+                    fields[2].isEmpty() ? null : Integer.valueOf(fields[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
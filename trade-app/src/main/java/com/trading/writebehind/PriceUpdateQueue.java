@@ -0,0 +1,283 @@
+package com.trading.writebehind;
+
+import com.trading.cache.ProductChangePublisher;
+import com.trading.exception.WriteBehindRejectedException;
+import com.trading.reservation.ReservationLedger;
+import com.trading.sharding.ShardContext;
+import com.trading.sharding.ShardIds;
+import com.trading.sharding.ShardMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for high-frequency price/quantity updates. An update is acknowledged once it
+ * is durable in the {@link PriceUpdateJournal}; it is then held in memory keyed by product id, so
+ * only the latest value per product survives a flush window, and written with JDBC batch updates.
+ * When {@code trading.write-behind.max-pending} products are waiting, submitters block for up to
+ * {@code offer-timeout} and are then rejected. Journal segments left by a crash are replayed on startup.
+ * With sharding enabled each flush writes one batch per shard.
+ * <p>
+ * A batch the database rejects (a constraint or range violation) is retried one update per
+ * transaction; updates that still fail are dead-lettered and logged, so one bad update cannot
+ * hold back the rest. Any other failure requeues the whole batch for the next flush.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "trading.write-behind", name = "enabled", havingValue = "true")
+public class PriceUpdateQueue {
+
+    private static final String UPDATE_SQL = "UPDATE trading_products SET price = COALESCE(?, price), "
+            + "quantity = COALESCE(?, quantity), updated_at = ? WHERE id = ?";
+
+    private final WriteBehindProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ShardMap> shardMap;
+    private final ProductChangePublisher productChanges;
+    private final ReservationLedger reservationLedger;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Map<Long, PriceUpdate> pending = new LinkedHashMap<>();
+
+    private PriceUpdateJournal journal;
+    private ScheduledExecutorService flusher;
+    private Counter coalesced;
+    private Counter flushed;
+    private Counter deadLettered;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void start() throws IOException {
+        journal = new PriceUpdateJournal(Path.of(properties.getJournalDir()));
+        List<PriceUpdate> recovered = journal.recover();
+        recovered.forEach(update -> pending.merge(update.getProductId(), update, (earlier, later) -> later.after(earlier)));
+        journal.rotate();
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} journaled price updates for {} products", recovered.size(), pending.size());
+        }
+
+        coalesced = meterRegistry.counter("trading.writebehind.coalesced");
+        flushed = meterRegistry.counter("trading.writebehind.flushed");
+        deadLettered = meterRegistry.counter("trading.writebehind.dead-lettered");
+        flushTimer = meterRegistry.timer("trading.writebehind.flush.time");
+        Gauge.builder("trading.writebehind.pending", this, PriceUpdateQueue::pendingCount).register(meterRegistry);
+
+        flushQuietly();
+        long interval = properties.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getFlushInterval().toMillis() * 5, TimeUnit.MILLISECONDS);
+        flushQuietly();
+        journal.close();
+    }
+
+    /**
+     * Journals the update and queues it for the next flush. Returns once the update is durable.
+     *
+     * @throws WriteBehindRejectedException if the queue stays full for {@code offer-timeout}
+     */
+    public void submit(PriceUpdate update) {
+        long position;
+        lock.lock();
+        try {
+            long remaining = properties.getOfferTimeout().toNanos();
+            while (pending.size() >= properties.getMaxPending() && !pending.containsKey(update.getProductId())) {
+                if (remaining <= 0) {
+                    throw new WriteBehindRejectedException("Price update queue is full, retry later");
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            position = journal.append(update);
+            PriceUpdate earlier = pending.get(update.getProductId());
+            if (earlier != null) {
+                coalesced.increment();
+            }
+            pending.put(update.getProductId(), earlier == null ? update : update.after(earlier));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindRejectedException("Interrupted while waiting for queue space");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal price update", e);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync price update journal", e);
+        }
+    }
+
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Price update flush failed, will retry", e);
+        }
+    }
+
+    private void flush() throws IOException {
+        List<PriceUpdate> batch;
+        List<Path> sealed;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            sealed = journal.rotate();
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flushTimer.record(() -> write(batch));
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                // Anything submitted since is newer than the failed batch and wins field by field.
+                batch.forEach(update -> pending.merge(update.getProductId(), update, (later, failed) -> later.after(failed)));
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        flushed.increment(batch.size());
+        journal.delete(sealed);
+    }
+
+    private void write(List<PriceUpdate> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        ShardMap shards = shardMap.getIfAvailable();
+        int missing = 0;
+        if (shards == null) {
+            missing = writeBatch(batch, now);
+        } else {
+            Map<Integer, List<PriceUpdate>> byShard = new TreeMap<>();
+            for (PriceUpdate update : batch) {
+                int shard = ShardIds.shardOf(update.getProductId());
+                if (shard < shards.shardCount()) {
+                    byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(update);
+                } else {
+                    missing++;
+                }
+            }
+            for (Map.Entry<Integer, List<PriceUpdate>> entry : byShard.entrySet()) {
+                missing += ShardContext.callOn(entry.getKey(), () -> writeBatch(entry.getValue(), now));
+            }
+        }
+        if (missing > 0) {
+            log.warn("{} of {} price updates matched no product and were dropped", missing, batch.size());
+        }
+    }
+
+    /**
+     * Writes the updates in one transaction and returns how many matched no row. If the database
+     * rejects the batch, each update is written in its own transaction and the ones it still
+     * rejects are dead-lettered.
+     */
+    private int writeBatch(List<PriceUpdate> batch, Timestamp now) {
+        try {
+            return transactionTemplate.execute(status -> update(batch, now));
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e);
+                return 0;
+            }
+            log.warn("Database rejected a batch of {} price updates, retrying them one by one", batch.size());
+            int missing = 0;
+            for (PriceUpdate update : batch) {
+                missing += writeBatch(List.of(update), now);
+            }
+            return missing;
+        }
+    }
+
+    private int update(List<PriceUpdate> batch, Timestamp now) {
+        for (PriceUpdate update : batch) {
+            productChanges.changed(update.getProductId());
+            if (update.getQuantity() != null) {
+                // Reloads the ledger's stock once this transaction has committed the quantity.
+                reservationLedger.quantityChanged(update.getProductId());
+            }
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, batch, properties.getBatchSize(), (ps, update) -> {
+            ps.setObject(1, update.getPrice(), Types.NUMERIC);
+            ps.setObject(2, update.getQuantity(), Types.INTEGER);
+            ps.setTimestamp(3, now);
+            ps.setLong(4, update.getProductId());
+        });
+        int missing = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    missing++;
+                }
+            }
+        }
+        return missing;
+    }
+
+    private void deadLetter(PriceUpdate update, DataIntegrityViolationException cause) {
+        log.error("Dead-lettering price update {}: rejected by the database", update, cause);
+        try {
+            journal.deadLetter(update);
+        } catch (IOException e) {
+            // Keeping the segments would block every later flush; the error log is the record.
+            log.error("Could not write price update {} to the dead-letter file", update, e);
+        }
+        deadLettered.increment();
+    }
+}
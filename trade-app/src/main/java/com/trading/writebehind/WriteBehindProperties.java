@@ -0,0 +1,47 @@
+package com.trading.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.write-behind.*} settings for journaled, coalesced price/quantity updates.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Acknowledge price updates once journaled and apply them in the background.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the journal segments. Must survive restarts to allow replay.
+     */
+    private String journalDir = "data/price-journal";
+
+    /**
+     * Delay between flushes; updates to the same product within a window are coalesced.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Maximum number of distinct products waiting to be flushed.
+     */
+    private int maxPending = 10_000;
+
+    /**
+     * How long a submit waits for space before it is rejected.
+     */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Rows per JDBC batch when flushing.
+     */
+    private int batchSize = 500;
+
+}
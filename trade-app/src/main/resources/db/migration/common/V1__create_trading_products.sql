@@ -0,0 +1,11 @@
+CREATE TABLE trading_products (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_name VARCHAR(100)   NOT NULL,
+    description  VARCHAR(500)   NOT NULL,
+    category     VARCHAR(50)    NOT NULL,
+    price        NUMERIC(10, 2) NOT NULL,
+    quantity     INTEGER        NOT NULL,
+    status       VARCHAR(50)    NOT NULL,
+    created_at   TIMESTAMP(6)   NOT NULL,
+    updated_at   TIMESTAMP(6)   NOT NULL
+);
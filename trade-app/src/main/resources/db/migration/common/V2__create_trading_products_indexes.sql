@@ -0,0 +1,3 @@
+-- findByCategory / findByStatus filter on the leading column; the trailing id serves keyset listing.
+CREATE INDEX IF NOT EXISTS idx_trading_products_category_id ON trading_products (category, id);
+CREATE INDEX IF NOT EXISTS idx_trading_products_status_id ON trading_products (status, id);
@@ -0,0 +1,9 @@
+-- Change log behind the product near-cache: one row per committed write transaction on PostgreSQL,
+-- replayed by instances whose LISTEN connection dropped. Rows older than
+-- trading.cache.change-retention are purged by the listeners.
+CREATE TABLE trading_product_changes (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_ids TEXT                        NOT NULL,
+    changed_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+CREATE INDEX idx_trading_product_changes_changed_at ON trading_product_changes (changed_at);
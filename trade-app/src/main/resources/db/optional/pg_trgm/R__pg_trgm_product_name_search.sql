@@ -0,0 +1,6 @@
+-- Optional trigram index for infix (LIKE '%term%') name search. Enabled by adding
+-- classpath:db/optional/pg_trgm to spring.flyway.locations on PostgreSQL 13+,
+-- where pg_trgm is a trusted extension the application user may create.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_trading_products_name_trgm
+    ON trading_products USING gin (UPPER(product_name) gin_trgm_ops);
@@ -0,0 +1,8 @@
+-- Applied to shard 0 only when trading.sharding.enabled=true.
+-- The unique name keeps product names unique across shards; product id = seq * 64 + shard.
+CREATE TABLE trading_product_directory (
+    seq          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_name VARCHAR(100) NOT NULL,
+    shard        INTEGER      NOT NULL,
+    CONSTRAINT uk_trading_product_directory_name UNIQUE (product_name)
+);
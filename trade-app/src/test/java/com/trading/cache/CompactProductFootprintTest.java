@@ -0,0 +1,72 @@
+package com.trading.cache;
+
+import com.trading.dto.TradingProductDTO;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the retained heap per near-cached product with JOL, for DTO copies against
+ * {@link CompactProduct}. Every object reachable from the cached values is counted once, so the
+ * shared category and status strings count once for the compact form, while each DTO holds its own,
+ * as it does when loaded from a result set. The figures depend on the JVM (compressed oops, object
+ * alignment) and are printed; only the compact form being clearly smaller is asserted. Run alone
+ * with {@code mvn test -Dtest=CompactProductFootprintTest}.
+ */
+class CompactProductFootprintTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final String[] CATEGORIES = {"STOCKS", "BONDS", "FOREX", "COMMODITIES", "CRYPTO"};
+    private static final String[] STATUSES = {"ACTIVE", "INACTIVE", "SUSPENDED"};
+
+    @Test
+    void compactProductsRetainLessHeapThanDtoCopies() {
+        TradingProductDTO[] dtos = new TradingProductDTO[PRODUCTS];
+        CompactProduct[] compact = new CompactProduct[PRODUCTS];
+        ValueInterner interner = new ValueInterner(1_024);
+        for (int i = 0; i < PRODUCTS; i++) {
+            dtos[i] = product(i);
+            compact[i] = CompactProduct.of(product(i), interner);
+            assertThat(compact[i].toDTO()).isEqualTo(dtos[i]);
+        }
+
+        double dtoBytes = bytesPerProduct(dtos);
+        double compactBytes = bytesPerProduct(compact);
+
+        System.out.println(ClassLayout.parseClass(CompactProduct.class).toPrintable());
+        System.out.printf("Near-cache footprint over %,d products: DTO %.1f -> compact %.1f bytes per product%n",
+                PRODUCTS, dtoBytes, compactBytes);
+        assertThat(compactBytes).isLessThan(dtoBytes * 0.75);
+    }
+
+    /**
+     * Everything reachable from the values, less the array holding them.
+     */
+    private static double bytesPerProduct(Object[] values) {
+        long total = GraphLayout.parseInstance((Object) values).totalSize() - VM.current().sizeOf(values);
+        return total / (double) values.length;
+    }
+
+    /**
+     * A product as a result set would produce it: every string, including the repeated category and
+     * status, is a separate instance.
+     */
+    private static TradingProductDTO product(int i) {
+        return new TradingProductDTO((long) i + 1,
+                "Instrument " + String.format("%06d", i) + " Holdings",
+                "Listed instrument " + i + " tracked by the trading desk for intraday pricing",
+                copy(CATEGORIES[i % CATEGORIES.length]),
+                BigDecimal.valueOf(10_000L + i * 37L, CompactProduct.PRICE_SCALE),
+                i % 1_000,
+                copy(STATUSES[i % STATUSES.length]));
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+}
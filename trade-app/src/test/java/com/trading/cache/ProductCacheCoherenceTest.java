@@ -0,0 +1,146 @@
+package com.trading.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.TradeAppApplication;
+import com.trading.dto.TradingProductDTO;
+import com.trading.service.TradingProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts on one PostgreSQL database stand in for two replicas: writes go through
+ * the writer, and the reader's near-cache must drop what it holds, through NOTIFY while its LISTEN
+ * connection is up and through the change log replay after it reconnects.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductCacheCoherenceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Selects the reader's LISTEN connection: the only one running the heartbeat and change log purge.
+     */
+    private static final String READER_LISTENER_PIDS = "SELECT pid FROM pg_stat_activity "
+            + "WHERE application_name = 'reader' AND (query = 'SELECT clock_timestamp()' "
+            + "OR query LIKE 'LISTEN%' OR query LIKE 'DELETE FROM trading_product_changes%')";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startInstances() {
+        writer = instance("writer");
+        reader = instance("reader");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void writeOnOneInstanceInvalidatesTheOther() throws Exception {
+        Long id = service(writer).createProduct(product()).getId();
+        assertThat(service(reader).getProductById(id).getPrice()).isEqualByComparingTo("10.00");
+        double remote = invalidations(reader, "remote");
+
+        patchPrice(id, "12.34");
+
+        assertThat(eventually(() -> price(reader, id).compareTo(new BigDecimal("12.34")) == 0)).isTrue();
+        assertThat(invalidations(reader, "remote")).isGreaterThan(remote);
+    }
+
+    @Test
+    void changesMissedWhileDisconnectedAreReplayedOnReconnect() throws Exception {
+        JdbcTemplate database = writer.getBean(JdbcTemplate.class);
+        assertThat(eventually(() -> !database.queryForList(READER_LISTENER_PIDS, Integer.class).isEmpty())).isTrue();
+        Long id = service(writer).createProduct(product()).getId();
+        assertThat(service(reader).getProductById(id).getPrice()).isEqualByComparingTo("10.00");
+        double reconnects = reader.getBean(MeterRegistry.class).counter("trading.cache.listener.reconnects").count();
+        double catchUp = invalidations(reader, "catch-up");
+
+        database.queryForList("SELECT pg_terminate_backend(pid) FROM (" + READER_LISTENER_PIDS + ") listener", Boolean.class);
+        // The reader is now waiting out its reconnect delay, so the NOTIFY below is lost to it.
+        assertThat(eventually(() -> reader.getBean(MeterRegistry.class)
+                .counter("trading.cache.listener.reconnects").count() > reconnects)).isTrue();
+        patchPrice(id, "15.00");
+
+        assertThat(eventually(() -> price(reader, id).compareTo(new BigDecimal("15.00")) == 0)).isTrue();
+        assertThat(invalidations(reader, "catch-up")).isGreaterThan(catchUp);
+    }
+
+    private static ConfigurableApplicationContext instance(String name) {
+        String url = POSTGRES.getJdbcUrl();
+        url += (url.contains("?") ? "&" : "?") + "ApplicationName=" + name;
+        return new SpringApplicationBuilder(TradeAppApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + POSTGRES.getUsername(),
+                "--spring.datasource.password=" + POSTGRES.getPassword(),
+                "--spring.datasource.driverClassName=" + POSTGRES.getDriverClassName(),
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                "--trading.warmup.enabled=false",
+                "--trading.cache.heartbeat-interval=200ms",
+                "--trading.cache.reconnect-delay=2s");
+    }
+
+    private static void patchPrice(Long id, String price) throws Exception {
+        ObjectMapper objectMapper = writer.getBean(ObjectMapper.class);
+        service(writer).patchProduct(id, objectMapper.readTree("{\"price\": " + price + "}"));
+    }
+
+    private static BigDecimal price(ConfigurableApplicationContext instance, Long id) {
+        return service(instance).getProductById(id).getPrice();
+    }
+
+    private static double invalidations(ConfigurableApplicationContext instance, String source) {
+        return instance.getBean(MeterRegistry.class).counter("trading.cache.invalidations", "source", source).count();
+    }
+
+    private static TradingProductService service(ConfigurableApplicationContext instance) {
+        return instance.getBean(TradingProductService.class);
+    }
+
+    private static TradingProductDTO product() {
+        TradingProductDTO product = new TradingProductDTO();
+        product.setProductName("Cached " + UUID.randomUUID());
+        product.setDescription("Cache coherence test");
+        product.setCategory("STOCKS");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(5);
+        return product;
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,158 @@
+package com.trading.cache;
+
+import com.trading.dto.TradingProductDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductNearCacheTest {
+
+    private ProductCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductNearCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductNearCache(properties, meterRegistry);
+        cache.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void servesRepeatedLookupsFromTheCache() {
+        cache.get(1L, () -> load(1L, "10.00"));
+        TradingProductDTO cached = cache.get(1L, () -> load(1L, "99.00"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached.getPrice()).isEqualByComparingTo("10.00");
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void returnsACopyTheCallerMayModify() {
+        cache.get(1L, () -> load(1L, "10.00"));
+        cache.get(1L, () -> load(1L, "10.00")).setProductName("changed");
+
+        assertThat(cache.get(1L, () -> load(1L, "10.00")).getProductName()).isEqualTo("Product 1");
+    }
+
+    @Test
+    void invalidationForcesAReload() {
+        cache.get(1L, () -> load(1L, "10.00"));
+
+        cache.invalidate(1L, ProductNearCache.Source.REMOTE);
+
+        assertThat(cache.get(1L, () -> load(1L, "11.00")).getPrice()).isEqualByComparingTo("11.00");
+        assertThat(meterRegistry.counter("trading.cache.invalidations", "source", "remote").count()).isEqualTo(1);
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        TradingProductDTO loaded = cache.get(1L, () -> {
+            // A write commits and invalidates while the old row is being read.
+            cache.invalidate(1L, ProductNearCache.Source.LOCAL);
+            return load(1L, "10.00");
+        });
+
+        assertThat(loaded.getPrice()).isEqualByComparingTo("10.00");
+        assertThat(cache.get(1L, () -> load(1L, "12.00")).getPrice()).isEqualByComparingTo("12.00");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidationOfAnotherStripeDoesNotBlockCaching() {
+        cache.get(1L, () -> {
+            cache.invalidate(2L, ProductNearCache.Source.LOCAL);
+            return load(1L, "10.00");
+        });
+
+        cache.get(1L, () -> load(1L, "12.00"));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidateAllDropsEveryEntry() {
+        cache.get(1L, () -> load(1L, "10.00"));
+        cache.get(2L, () -> load(2L, "20.00"));
+
+        cache.invalidateAll(ProductNearCache.Source.CATCH_UP);
+
+        cache.get(1L, () -> load(1L, "10.00"));
+        cache.get(2L, () -> load(2L, "20.00"));
+        assertThat(loads).hasValue(4);
+        assertThat(meterRegistry.counter("trading.cache.invalidations", "source", "catch-up").count()).isEqualTo(2);
+    }
+
+    @Test
+    void bypassedInsideAReadWriteTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        cache.get(1L, () -> load(1L, "10.00"));
+        cache.get(1L, () -> load(1L, "10.00"));
+
+        assertThat(loads).hasValue(2);
+        assertThat(requests("bypass")).isEqualTo(2);
+    }
+
+    @Test
+    void usedInsideAReadOnlyTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        cache.get(1L, () -> load(1L, "10.00"));
+        cache.get(1L, () -> load(1L, "10.00"));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void missingProductsAreNotCached() {
+        assertThat(cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        cache.get(1L, () -> load(1L, "10.00"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void staysWithinTheSizeBound() {
+        properties.setMaxSize(100);
+
+        for (long id = 1; id <= 1_000; id++) {
+            long productId = id;
+            cache.get(productId, () -> load(productId, "10.00"));
+        }
+
+        assertThat(meterRegistry.get("trading.cache.size").gauge().value()).isLessThanOrEqualTo(100);
+    }
+
+    private TradingProductDTO load(Long id, String price) {
+        loads.incrementAndGet();
+        return new TradingProductDTO(id, "Product " + id, "Description", "STOCKS", new BigDecimal(price), 5, "ACTIVE");
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("trading.cache.requests", "result", result).count();
+    }
+}
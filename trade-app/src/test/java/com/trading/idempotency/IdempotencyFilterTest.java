@@ -0,0 +1,90 @@
+package com.trading.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "trading.warmup.enabled=false")
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void retriedCreateReturnsTheFirstProduct() throws Exception {
+        String name = "Idempotent " + UUID.randomUUID();
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(product(name)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(product(name)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        JsonNode matches = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/search").param("name", name))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(matches).hasSize(1);
+    }
+
+    @Test
+    void retriedReservationHoldsOnce() throws Exception {
+        long productId = objectMapper.readTree(mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON).content(product("Reserved " + UUID.randomUUID())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        String key = UUID.randomUUID().toString();
+        String reservations = "/api/v1/products/" + productId + "/reservations";
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post(reservations).header(IdempotencyFilter.HEADER, key)
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 6}"))
+                    .andExpect(status().isCreated());
+        }
+
+        // Only the first attempt held stock, so 4 of the 10 are still available.
+        mockMvc.perform(post(reservations).contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 4}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(product("First " + UUID.randomUUID())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(product("Second " + UUID.randomUUID())))
+                .andExpect(status().is(422));
+    }
+
+    private static String product(String name) {
+        return "{\"productName\": \"" + name + "\", \"description\": \"Idempotency test\", "
+                + "\"category\": \"STOCKS\", \"price\": 10.00, \"quantity\": 10}";
+    }
+}
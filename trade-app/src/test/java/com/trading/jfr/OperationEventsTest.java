@@ -0,0 +1,91 @@
+package com.trading.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Records a category lookup with the {@code trading.*} events switched on, checks what each layer
+ * reports, and feeds the recording to {@link JfrRecordingAnalyzer}.
+ */
+@SpringBootTest(properties = "trading.warmup.enabled=false")
+@AutoConfigureMockMvc
+class OperationEventsTest {
+
+    private static final String CATEGORY = "JFR_PROBE";
+
+    @TempDir
+    Path recordingDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void eachLayerReportsTheOperationKeyRowsAndDbTime() throws Exception {
+        for (int i = 1; i <= 2; i++) {
+            jdbcTemplate.update("INSERT INTO trading_products (product_name, description, category, price, quantity, "
+                    + "status, created_at, updated_at) VALUES (?, 'd', ?, 1.00, 1, 'ACTIVE', CURRENT_TIMESTAMP, "
+                    + "CURRENT_TIMESTAMP)", "JFR probe " + i, CATEGORY);
+        }
+        Path file = recordingDir.resolve("trading.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("trading.ControllerOperation");
+            recording.enable("trading.ServiceOperation");
+            recording.enable("trading.RepositoryOperation");
+            recording.start();
+            mockMvc.perform(get("/api/v1/products/category/{category}", CATEGORY)).andExpect(status().isOk());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> CATEGORY.equals(event.getString("key")))
+                .toList();
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .containsExactlyInAnyOrder("trading.ControllerOperation", "trading.ServiceOperation",
+                        "trading.RepositoryOperation");
+        for (RecordedEvent event : events) {
+            assertThat(event.getString("operation")).isIn("getProductsByCategory", "findByCategory");
+            assertThat(event.getLong("rows")).isEqualTo(2);
+            assertThat(event.getInt("statements")).isEqualTo(1);
+            assertThat(event.getDuration("dbTime")).isPositive();
+            assertThat(event.getBoolean("failed")).isFalse();
+        }
+        RecordedEvent controller = events.stream()
+                .filter(event -> event.getEventType().getName().equals("trading.ControllerOperation"))
+                .findFirst().orElseThrow();
+        assertThat(controller.getInt("status")).isEqualTo(200);
+        assertThat(controller.getDuration("serializationTime")).isPositive();
+
+        Map<String, JfrRecordingAnalyzer.OperationStats> stats = JfrRecordingAnalyzer.read(file, "Category");
+        assertThat(stats).containsOnlyKeys("ControllerOperation getProductsByCategory",
+                "ServiceOperation getProductsByCategory", "RepositoryOperation findByCategory");
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        stats.get("RepositoryOperation findByCategory").print(new PrintStream(report, true, StandardCharsets.UTF_8));
+        assertThat(report.toString(StandardCharsets.UTF_8))
+                .startsWith("RepositoryOperation findByCategory")
+                .contains("count 1 (0 failed)", "per call: 2.0 rows, 1.0 statements");
+    }
+}
@@ -0,0 +1,59 @@
+package com.trading.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class SqlInstrumentationTest {
+
+    private final SqlStatementMonitor monitor = mock(SqlStatementMonitor.class);
+
+    @Test
+    void closeablePoolStaysCloseable() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(Closeable.class));
+
+        DataSource wrapped = SqlInstrumentation.wrap(pool, () -> monitor);
+
+        assertThat(wrapped).isInstanceOf(Closeable.class);
+        ((Closeable) wrapped).close();
+        verify((Closeable) pool).close();
+    }
+
+    @Test
+    void plainDataSourceIsNotMadeCloseable() {
+        DataSource wrapped = SqlInstrumentation.wrap(mock(DataSource.class), () -> monitor);
+
+        assertThat(wrapped).isNotInstanceOf(AutoCloseable.class);
+        assertThat(SqlInstrumentation.isInstrumented(wrapped)).isTrue();
+    }
+
+    @Test
+    void reportsExecutedStatements() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        try (Connection wrapped = SqlInstrumentation.wrap(dataSource, () -> monitor).getConnection()) {
+            PreparedStatement prepared = wrapped.prepareStatement("SELECT * FROM trading_products WHERE id = ?");
+            prepared.setLong(1, 42L);
+            prepared.executeQuery();
+        }
+
+        verify(monitor).statementExecuted(eq("SELECT * FROM trading_products WHERE id = ?"), eq(List.of(42L)), anyLong());
+    }
+}
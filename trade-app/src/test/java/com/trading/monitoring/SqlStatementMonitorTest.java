@@ -0,0 +1,59 @@
+package com.trading.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementMonitorTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final SqlStatementMonitor monitor = new SqlStatementMonitor(properties(10, 3));
+
+    @Test
+    void ignoresStatementsBelowThreshold() {
+        monitor.statementExecuted("SELECT 1", List.of(), 9 * MILLIS);
+
+        assertThat(monitor.getSlowQueries()).isEmpty();
+    }
+
+    @Test
+    void burstOfModeratelySlowStatementsKeepsTheOutliers() {
+        monitor.statementExecuted("outlier-1", List.of(), 500 * MILLIS);
+        monitor.statementExecuted("outlier-2", List.of(), 400 * MILLIS);
+        monitor.statementExecuted("outlier-3", List.of(), 300 * MILLIS);
+        for (int i = 0; i < 1_000; i++) {
+            monitor.statementExecuted("moderate", List.of(i), 20 * MILLIS);
+        }
+
+        assertThat(monitor.getSlowQueries()).extracting(SlowQuery::getSql)
+                .containsExactly("outlier-1", "outlier-2", "outlier-3");
+    }
+
+    @Test
+    void slowerStatementReplacesTheFastestRetained() {
+        monitor.statementExecuted("a", List.of(), 30 * MILLIS);
+        monitor.statementExecuted("b", List.of(), 10 * MILLIS);
+        monitor.statementExecuted("c", List.of(), 20 * MILLIS);
+        monitor.statementExecuted("d", List.of(), 40 * MILLIS);
+
+        assertThat(monitor.getSlowQueries()).extracting(SlowQuery::getSql).containsExactly("d", "a", "c");
+    }
+
+    @Test
+    void resetClearsTheBuffer() {
+        monitor.statementExecuted("a", List.of(), 30 * MILLIS);
+        monitor.reset();
+
+        assertThat(monitor.getSlowQueries()).isEmpty();
+    }
+
+    private static SqlMonitoringProperties properties(long thresholdMs, int capacity) {
+        SqlMonitoringProperties properties = new SqlMonitoringProperties();
+        properties.setSlowThresholdMs(thresholdMs);
+        properties.setSlowQueryCapacity(capacity);
+        return properties;
+    }
+}
@@ -0,0 +1,32 @@
+package com.trading.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate prepares, so tests can {@code EXPLAIN} exactly what a repository
+ * method runs. Registered with {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class CapturedStatements implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    static String last() {
+        if (STATEMENTS.isEmpty()) {
+            throw new IllegalStateException("No statement was prepared");
+        }
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
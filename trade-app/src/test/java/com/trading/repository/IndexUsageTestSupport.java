@@ -0,0 +1,72 @@
+package com.trading.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository's hot queries, then {@code EXPLAIN}s the SQL Hibernate generated for them
+ * and asserts the plan reads through the index created by {@code V2__create_trading_products_indexes}.
+ */
+abstract class IndexUsageTestSupport {
+
+    @Autowired
+    TradingProductRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByCategoryUsesCategoryIndex() {
+        assertThat(plan(() -> repository.findByCategory("STOCKS"), "STOCKS"))
+                .containsIgnoringCase("idx_trading_products_category_id");
+    }
+
+    @Test
+    void findProjectedByCategoryUsesCategoryIndex() {
+        assertThat(plan(() -> repository.findProjectedByCategory("STOCKS", List.of("id", "price")), "STOCKS"))
+                .containsIgnoringCase("idx_trading_products_category_id");
+    }
+
+    @Test
+    void findByStatusUsesStatusIndex() {
+        assertThat(plan(() -> repository.findByStatus("ACTIVE"), "ACTIVE"))
+                .containsIgnoringCase("idx_trading_products_status_id");
+    }
+
+    /**
+     * The plan of the last statement {@code query} prepared, with every parameter bound to
+     * {@code parameter}.
+     */
+    String plan(Runnable query, Object parameter) {
+        CapturedStatements.clear();
+        query.run();
+        String sql = CapturedStatements.last();
+        beforeExplain();
+        return jdbcTemplate.query("EXPLAIN " + sql,
+                statement -> {
+                    int parameters = statement.getParameterMetaData().getParameterCount();
+                    for (int index = 1; index <= parameters; index++) {
+                        statement.setObject(index, parameter);
+                    }
+                },
+                rows -> {
+                    StringBuilder plan = new StringBuilder();
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                });
+    }
+
+    /**
+     * Prepares the session for {@code EXPLAIN}; tests run in a transaction, so settings made here
+     * apply to the same connection.
+     */
+    void beforeExplain() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.trading.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The planner prefers a sequential scan on a near-empty table, so sequential scans are disabled
+ * for the {@code EXPLAIN}: the assertion is that an index exists that the query can use.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.trading.repository.CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TradingProductRepositoryPostgresIndexTest extends IndexUsageTestSupport {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/common,classpath:db/optional/pg_trgm");
+    }
+
+    @Test
+    void nameSearchUsesTrigramIndex() {
+        assertThat(plan(() -> repository.findByProductNameContainingIgnoreCase("acme"), "%ACME%"))
+                .contains("idx_trading_products_name_trgm");
+    }
+
+    @Override
+    void beforeExplain() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+}
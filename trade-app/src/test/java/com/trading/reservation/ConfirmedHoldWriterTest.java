@@ -0,0 +1,37 @@
+package com.trading.reservation;
+
+import com.trading.cache.ProductChangePublisher;
+import com.trading.exception.ReservationUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ConfirmedHoldWriterTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void confirmationsSubmittedAfterStopFailInsteadOfHanging() throws Exception {
+        ConfirmedHoldWriter writer = new ConfirmedHoldWriter(new ReservationProperties(), mock(JdbcTemplate.class),
+                mock(TransactionTemplate.class), mock(ObjectProvider.class), mock(ProductChangePublisher.class));
+        writer.start();
+        writer.stop();
+
+        CompletableFuture<Boolean> result = writer.submit(
+                new ReservationHold("late", 1L, 1, LocalDateTime.now(), System.nanoTime()));
+
+        assertThat(result).isCompletedExceptionally();
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ReservationUnavailableException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.trading.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldExpiryWheelTest {
+
+    @Test
+    void expiresHoldsDueBeyondOneRotationNoEarlierThanTheirDeadline() throws Exception {
+        Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+        CountDownLatch expired = new CountDownLatch(2);
+        // Four 10 ms buckets: one rotation is 40 ms, well short of the later deadline.
+        HoldExpiryWheel wheel = new HoldExpiryWheel(Duration.ofMillis(10), 4, hold -> {
+            expiredAt.put(hold.getId(), System.nanoTime());
+            expired.countDown();
+        });
+        wheel.start();
+        try {
+            ReservationHold soon = hold("soon", Duration.ofMillis(20));
+            ReservationHold later = hold("later", Duration.ofMillis(150));
+            wheel.schedule(soon);
+            wheel.schedule(later);
+
+            assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(expiredAt.get("soon") - soon.getDeadlineNanos()).isNotNegative();
+            assertThat(expiredAt.get("later") - later.getDeadlineNanos()).isNotNegative();
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void skipsHoldsNoLongerHeld() throws Exception {
+        CountDownLatch expired = new CountDownLatch(1);
+        HoldExpiryWheel wheel = new HoldExpiryWheel(Duration.ofMillis(10), 4, hold -> expired.countDown());
+        wheel.start();
+        try {
+            ReservationHold released = hold("released", Duration.ofMillis(20));
+            released.transition(ReservationHold.State.RELEASED);
+            wheel.schedule(released);
+
+            assertThat(expired.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    private static ReservationHold hold(String id, Duration ttl) {
+        return new ReservationHold(id, 1L, 1, LocalDateTime.now().plus(ttl), System.nanoTime() + ttl.toNanos());
+    }
+}
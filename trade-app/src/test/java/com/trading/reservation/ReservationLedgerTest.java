@@ -0,0 +1,193 @@
+package com.trading.reservation;
+
+import com.trading.entity.TradingProduct;
+import com.trading.exception.ReservationConflictException;
+import com.trading.exception.ReservationUnavailableException;
+import com.trading.repository.TradingProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationLedgerTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private TradingProductRepository repository;
+    private ConfirmedHoldWriter writer;
+    private ReservationLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ReservationProperties properties = new ReservationProperties();
+        properties.setTickDuration(Duration.ofMillis(10));
+        properties.setWheelSize(16);
+        properties.setConfirmTimeout(Duration.ofMillis(200));
+        repository = mock(TradingProductRepository.class);
+        writer = mock(ConfirmedHoldWriter.class);
+        stockInDatabase(10);
+        ledger = new ReservationLedger(properties, repository, writer, new SimpleMeterRegistry());
+        ledger.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.stop();
+    }
+
+    @Test
+    void reservesUntilTheStockIsHeld() {
+        ledger.reserve(PRODUCT_ID, 6, TTL);
+
+        assertThatThrownBy(() -> ledger.reserve(PRODUCT_ID, 5, TTL))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessageContaining("Only 4");
+        assertThat(ledger.reserve(PRODUCT_ID, 4, TTL).getState()).isEqualTo(ReservationHold.State.HELD);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        stockInDatabase(1_000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int taken = 0;
+                    try {
+                        while (true) {
+                            ledger.reserve(PRODUCT_ID, 3, TTL);
+                            taken += 3;
+                        }
+                    } catch (ReservationConflictException e) {
+                        return taken;
+                    }
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(999);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void releaseReturnsTheQuantityOnce() {
+        ReservationHold hold = ledger.reserve(PRODUCT_ID, 10, TTL);
+
+        ledger.release(hold);
+
+        assertThatThrownBy(() -> ledger.release(hold)).isInstanceOf(ReservationConflictException.class);
+        assertThat(ledger.reserve(PRODUCT_ID, 10, TTL)).isNotNull();
+    }
+
+    @Test
+    void expiredHoldsReturnTheirQuantity() throws Exception {
+        ReservationHold hold = ledger.reserve(PRODUCT_ID, 10, Duration.ofMillis(50));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hold.getState() == ReservationHold.State.HELD && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+
+        assertThat(hold.getState()).isEqualTo(ReservationHold.State.EXPIRED);
+        assertThat(ledger.find(hold.getId())).isEmpty();
+        assertThat(ledger.reserve(PRODUCT_ID, 10, TTL)).isNotNull();
+        assertThatThrownBy(() -> ledger.confirm(hold)).isInstanceOf(ReservationConflictException.class);
+    }
+
+    @Test
+    void confirmWaitsForTheWrite() {
+        ReservationHold hold = ledger.reserve(PRODUCT_ID, 4, TTL);
+        when(writer.submit(hold)).thenReturn(CompletableFuture.completedFuture(true));
+
+        ledger.confirm(hold);
+
+        assertThat(hold.getState()).isEqualTo(ReservationHold.State.CONFIRMED);
+        assertThatThrownBy(() -> ledger.reserve(PRODUCT_ID, 7, TTL)).isInstanceOf(ReservationConflictException.class);
+    }
+
+    @Test
+    void confirmRejectedByTheDatabaseReloadsTheStock() {
+        ReservationHold hold = ledger.reserve(PRODUCT_ID, 4, TTL);
+        when(writer.submit(hold)).thenReturn(CompletableFuture.completedFuture(false));
+        stockInDatabase(2);
+
+        assertThatThrownBy(() -> ledger.confirm(hold)).isInstanceOf(ReservationConflictException.class);
+
+        assertThatThrownBy(() -> ledger.reserve(PRODUCT_ID, 3, TTL))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessageContaining("Only 2");
+    }
+
+    @Test
+    void confirmTimesOutAndKeepsTheDecrementPendingUntilItResolves() {
+        ReservationHold hold = ledger.reserve(PRODUCT_ID, 4, TTL);
+        CompletableFuture<Boolean> write = new CompletableFuture<>();
+        when(writer.submit(hold)).thenReturn(write);
+
+        assertThatThrownBy(() -> ledger.confirm(hold)).isInstanceOf(ReservationUnavailableException.class);
+        assertThatThrownBy(() -> ledger.reserve(PRODUCT_ID, 7, TTL)).isInstanceOf(ReservationConflictException.class);
+
+        stockInDatabase(6);
+        write.complete(true);
+
+        assertThat(ledger.reserve(PRODUCT_ID, 6, TTL)).isNotNull();
+        verify(repository, times(2)).findById(PRODUCT_ID);
+    }
+
+    @Test
+    void confirmFailsWhenTheWriterHasStopped() {
+        ReservationHold hold = ledger.reserve(PRODUCT_ID, 4, TTL);
+        when(writer.submit(any())).thenReturn(CompletableFuture.failedFuture(
+                new ReservationUnavailableException("Reservation confirmations are shutting down")));
+
+        assertThatThrownBy(() -> ledger.confirm(hold)).isInstanceOf(ReservationUnavailableException.class);
+        assertThat(ledger.reserve(PRODUCT_ID, 10, TTL)).isNotNull();
+    }
+
+    @Test
+    void quantityChangedReloadsOnNextUse() {
+        ledger.reserve(PRODUCT_ID, 10, TTL);
+        stockInDatabase(15);
+
+        ledger.quantityChanged(PRODUCT_ID);
+
+        assertThat(ledger.reserve(PRODUCT_ID, 5, TTL)).isNotNull();
+        assertThatThrownBy(() -> ledger.reserve(PRODUCT_ID, 1, TTL)).isInstanceOf(ReservationConflictException.class);
+    }
+
+    private void stockInDatabase(int quantity) {
+        TradingProduct product = new TradingProduct();
+        product.setId(PRODUCT_ID);
+        product.setQuantity(quantity);
+        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+    }
+}
@@ -0,0 +1,89 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.TradingProductDTO;
+import com.trading.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "trading.warmup.enabled=false")
+class TradingProductServicePatchTest {
+
+    @Autowired
+    private TradingProductService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long id;
+
+    @BeforeEach
+    void createProduct() {
+        TradingProductDTO product = new TradingProductDTO();
+        product.setProductName("Patch target");
+        product.setDescription("Merge patch validation");
+        product.setCategory("STOCKS");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(5);
+        id = service.createProduct(product).getId();
+    }
+
+    @Test
+    void appliesOnlyPatchedFields() throws Exception {
+        TradingProductDTO patched = service.patchProduct(id, objectMapper.readTree("{\"price\": 12.34, \"quantity\": 7}"));
+
+        assertThat(patched.getPrice()).isEqualByComparingTo("12.34");
+        assertThat(patched.getQuantity()).isEqualTo(7);
+        assertThat(patched.getProductName()).isEqualTo("Patch target");
+    }
+
+    @Test
+    void rejectsFractionalQuantity() {
+        assertRejected("{\"quantity\": 1.5}", "Invalid value for quantity");
+    }
+
+    @Test
+    void rejectsQuantityOutOfIntRange() {
+        assertRejected("{\"quantity\": 3000000000}", "Invalid value for quantity");
+    }
+
+    @Test
+    void rejectsNumberForTextField() {
+        assertRejected("{\"status\": 42}", "Invalid value for status");
+    }
+
+    @Test
+    void rejectsTextForNumericField() {
+        assertRejected("{\"price\": \"12.00\"}", "Invalid value for price");
+    }
+
+    @Test
+    void rejectsStatusLongerThanColumn() {
+        assertRejected("{\"status\": \"" + "X".repeat(51) + "\"}", "status must be at most 50 characters");
+    }
+
+    @Test
+    void rejectsPriceOverflowingColumn() {
+        assertRejected("{\"price\": 123456789.99}", "at most 8 integer digits");
+    }
+
+    @Test
+    void rejectsRemovalAndUnknownFields() {
+        assertRejected("{\"description\": null}", "cannot be removed");
+        assertRejected("{\"id\": 5}", "cannot be patched");
+    }
+
+    private void assertRejected(String patch, String message) {
+        assertThatThrownBy(() -> service.patchProduct(id, objectMapper.readTree(patch)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining(message);
+        assertThat(service.getProductById(id).getPrice()).isEqualByComparingTo("10.00");
+    }
+}
@@ -0,0 +1,170 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.TradingProductDTO;
+import com.trading.entity.TradingProduct;
+import com.trading.monitoring.SqlStatistics;
+import com.trading.repository.TradingProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the single-statement PATCH and DELETE paths with the load-then-write paths they
+ * replace, counting JDBC statements through the instrumented {@code DataSource}. The regular run
+ * asserts the statement counts over a few calls. The {@value #BENCHMARK} tagged tests also time
+ * {@value #MEASURED_CALLS} calls each on the in-memory H2 database and log the latencies, which
+ * depend on the machine; they are excluded by default and run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@SpringBootTest(properties = "trading.warmup.enabled=false")
+class WritePathBenchmarkTest {
+
+    static final String BENCHMARK = "benchmark";
+
+    private static final int CHECKED_CALLS = 5;
+    private static final int WARM_UP_CALLS = 200;
+    private static final int MEASURED_CALLS = 1_000;
+
+    @Autowired
+    private TradingProductService service;
+
+    @Autowired
+    private TradingProductRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void patchWritesInOneStatement() {
+        Comparison patch = comparePatch(0, CHECKED_CALLS);
+
+        assertThat(patch.before().statementsPerCall()).isEqualTo(2);
+        assertThat(patch.after().statementsPerCall()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteRunsOneStatement() {
+        Comparison delete = compareDelete(0, CHECKED_CALLS);
+
+        assertThat(delete.before().statementsPerCall()).isEqualTo(3);
+        assertThat(delete.after().statementsPerCall()).isEqualTo(1);
+    }
+
+    @Test
+    @Tag(BENCHMARK)
+    void patchLatency() {
+        report("price update", comparePatch(WARM_UP_CALLS, MEASURED_CALLS));
+    }
+
+    @Test
+    @Tag(BENCHMARK)
+    void deleteLatency() {
+        report("delete", compareDelete(WARM_UP_CALLS, MEASURED_CALLS));
+    }
+
+    private Comparison comparePatch(int warmUpCalls, int measuredCalls) {
+        Long id = create().getId();
+
+        Measurement loadAndSave = measure(warmUpCalls, measuredCalls, call -> transactionTemplate.executeWithoutResult(status -> {
+            TradingProduct product = repository.findById(id).orElseThrow();
+            product.setPrice(price(call));
+            repository.save(product);
+        }));
+        Measurement patch = measure(warmUpCalls, measuredCalls,
+                call -> service.patchProduct(id, objectMapper.createObjectNode().put("price", price(call))));
+        return new Comparison(loadAndSave, patch);
+    }
+
+    private Comparison compareDelete(int warmUpCalls, int measuredCalls) {
+        List<Long> existsThenDeleteIds = createMany(warmUpCalls + measuredCalls);
+        List<Long> singleDeleteIds = createMany(warmUpCalls + measuredCalls);
+
+        Measurement existsThenDelete = measure(warmUpCalls, measuredCalls, call -> transactionTemplate.executeWithoutResult(status -> {
+            Long id = existsThenDeleteIds.get(call);
+            if (repository.existsById(id)) {
+                // What JpaRepository.deleteById does: load the entity, then remove it.
+                entityManager.remove(entityManager.find(TradingProduct.class, id));
+            }
+        }));
+        Measurement singleDelete = measure(warmUpCalls, measuredCalls, call -> service.deleteProduct(singleDeleteIds.get(call)));
+        return new Comparison(existsThenDelete, singleDelete);
+    }
+
+    private Measurement measure(int warmUpCalls, int measuredCalls, IntConsumer operation) {
+        for (int call = 0; call < warmUpCalls; call++) {
+            operation.accept(call);
+        }
+        long statements = 0;
+        long nanos = 0;
+        for (int call = warmUpCalls; call < warmUpCalls + measuredCalls; call++) {
+            SqlStatistics statistics = SqlStatistics.start("benchmark");
+            long started = System.nanoTime();
+            try {
+                operation.accept(call);
+            } finally {
+                nanos += System.nanoTime() - started;
+                statements += statistics.getStatements();
+                SqlStatistics.clear();
+            }
+        }
+        return new Measurement(statements / (double) measuredCalls, nanos / 1_000.0 / measuredCalls);
+    }
+
+    private static void report(String operation, Comparison comparison) {
+        log.info("{}: {} -> {} statements, {} -> {} us per call", operation,
+                String.format("%.1f", comparison.before().statementsPerCall()),
+                String.format("%.1f", comparison.after().statementsPerCall()),
+                String.format("%.1f", comparison.before().microsPerCall()),
+                String.format("%.1f", comparison.after().microsPerCall()));
+    }
+
+    private List<Long> createMany(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(create().getId());
+        }
+        return ids;
+    }
+
+    private TradingProductDTO create() {
+        TradingProductDTO product = new TradingProductDTO();
+        product.setProductName("Benchmark product");
+        product.setDescription("Write path benchmark");
+        product.setCategory("BENCHMARK");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setQuantity(10);
+        return service.createProduct(product);
+    }
+
+    /**
+     * A different price per call, none equal to the created product's, so every call really writes.
+     */
+    private static BigDecimal price(int call) {
+        return BigDecimal.valueOf(10_001 + call, 2);
+    }
+
+    private record Measurement(double statementsPerCall, double microsPerCall) {
+    }
+
+    private record Comparison(Measurement before, Measurement after) {
+    }
+}
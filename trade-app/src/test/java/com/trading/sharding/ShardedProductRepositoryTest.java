@@ -0,0 +1,191 @@
+package com.trading.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.TradingProductDTO;
+import com.trading.exception.InvalidRequestException;
+import com.trading.service.TradingProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the service against two in-memory H2 shards: STOCKS on shard 0, which also holds the
+ * product directory, and BONDS on shard 1. Every statement run through the application's
+ * {@link JdbcTemplate}, the directory's included, records how many shard 0 connections are in use,
+ * so a directory write that took a second connection beside the shard transaction's shows up.
+ */
+@SpringBootTest(properties = {
+        "trading.warmup.enabled=false",
+        "trading.sharding.enabled=true",
+        "trading.sharding.strategy=CATEGORY",
+        "trading.sharding.shards[0].url=jdbc:h2:mem:sharded-test-0;DB_CLOSE_DELAY=-1",
+        "trading.sharding.shards[0].username=sa",
+        "trading.sharding.shards[1].url=jdbc:h2:mem:sharded-test-1;DB_CLOSE_DELAY=-1",
+        "trading.sharding.shards[1].username=sa",
+        "trading.sharding.categories.STOCKS=0",
+        "trading.sharding.categories.BONDS=1"})
+class ShardedProductRepositoryTest {
+
+    private static final AtomicInteger PEAK_DIRECTORY_CONNECTIONS = new AtomicInteger();
+
+    @Autowired
+    private TradingProductService service;
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void insertsOnTheCategoryShard() {
+        Long stock = create(uniqueName("Stock"), "STOCKS").getId();
+        Long bond = create(uniqueName("Bond"), "BONDS").getId();
+
+        assertThat(ShardIds.shardOf(stock)).isZero();
+        assertThat(ShardIds.shardOf(bond)).isEqualTo(1);
+        assertThat(rowsOnShard(0, stock)).isEqualTo(1);
+        assertThat(rowsOnShard(1, stock)).isZero();
+        assertThat(rowsOnShard(1, bond)).isEqualTo(1);
+        assertThat(rowsOnShard(0, bond)).isZero();
+    }
+
+    @Test
+    void routesReadsByIdAndCategoryAndScattersTheRest() {
+        String marker = UUID.randomUUID().toString();
+        Long stock = create("Stock " + marker, "STOCKS").getId();
+        Long bond = create("Bond " + marker, "BONDS").getId();
+
+        assertThat(service.getProductById(stock).getCategory()).isEqualTo("STOCKS");
+        assertThat(service.getProductById(bond).getCategory()).isEqualTo("BONDS");
+        assertThat(ids(service.getProductsByCategory("BONDS"))).contains(bond).doesNotContain(stock);
+        assertThat(ids(service.searchByProductName(marker))).containsExactly(stock, bond);
+        assertThat(ids(service.getProductsByStatus("ACTIVE"))).contains(stock, bond);
+        assertThat(ids(service.getAllProducts())).contains(stock, bond);
+    }
+
+    @Test
+    void keepsNamesUniqueAcrossShards() {
+        String name = uniqueName("Taken");
+        create(name, "STOCKS");
+
+        assertThatThrownBy(() -> create(name, "BONDS")).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(directoryEntries(name)).isEqualTo(1);
+    }
+
+    @Test
+    void writesOnTheDirectoryShardWithinOneConnection() throws Exception {
+        PEAK_DIRECTORY_CONNECTIONS.set(0);
+        TradingProductDTO product = create(uniqueName("Before"), "STOCKS");
+        String updated = uniqueName("Updated");
+        String patched = uniqueName("Patched");
+
+        product.setProductName(updated);
+        service.updateProduct(product.getId(), product);
+        assertThat(directoryEntries(updated)).isEqualTo(1);
+
+        service.patchProduct(product.getId(), objectMapper.createObjectNode().put("productName", patched));
+        assertThat(directoryEntries(patched)).isEqualTo(1);
+        assertThat(directoryEntries(updated)).isZero();
+        assertThat(service.getProductById(product.getId()).getProductName()).isEqualTo(patched);
+
+        service.deleteProduct(product.getId());
+        assertThat(directoryEntries(patched)).isZero();
+        assertThat(PEAK_DIRECTORY_CONNECTIONS.get()).isEqualTo(1);
+    }
+
+    @Test
+    void renamesAcrossShards() {
+        TradingProductDTO product = create(uniqueName("Bond before"), "BONDS");
+        String updated = uniqueName("Bond updated");
+
+        product.setProductName(updated);
+        service.updateProduct(product.getId(), product);
+
+        assertThat(directoryEntries(updated)).isEqualTo(1);
+        assertThat(service.getProductById(product.getId()).getProductName()).isEqualTo(updated);
+    }
+
+    @Test
+    void deleteFreesTheName() {
+        String stockName = uniqueName("Deleted stock");
+        String bondName = uniqueName("Deleted bond");
+        service.deleteProduct(create(stockName, "STOCKS").getId());
+        service.deleteProduct(create(bondName, "BONDS").getId());
+
+        assertThat(directoryEntries(stockName)).isZero();
+        assertThat(directoryEntries(bondName)).isZero();
+        assertThat(create(stockName, "BONDS").getId()).isNotNull();
+    }
+
+    @Test
+    void rejectsMovingAProductToAnotherShard() {
+        TradingProductDTO product = create(uniqueName("Pinned"), "STOCKS");
+
+        assertThatThrownBy(() -> service.patchProduct(product.getId(),
+                objectMapper.createObjectNode().put("category", "BONDS")))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThat(service.getProductById(product.getId()).getCategory()).isEqualTo("STOCKS");
+    }
+
+    private TradingProductDTO create(String name, String category) {
+        TradingProductDTO product = new TradingProductDTO();
+        product.setProductName(name);
+        product.setDescription("Sharding test product");
+        product.setCategory(category);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setQuantity(5);
+        return service.createProduct(product);
+    }
+
+    private int rowsOnShard(int shard, Long id) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject(
+                "SELECT COUNT(*) FROM trading_products WHERE id = ?", Integer.class, id);
+    }
+
+    private int directoryEntries(String name) {
+        return new JdbcTemplate(shards.get(ProductDirectory.DIRECTORY_SHARD)).queryForObject(
+                "SELECT COUNT(*) FROM trading_product_directory WHERE product_name = ?", Integer.class, name);
+    }
+
+    private static List<Long> ids(List<TradingProductDTO> products) {
+        return products.stream().map(TradingProductDTO::getId).toList();
+    }
+
+    private static String uniqueName(String prefix) {
+        return prefix + " " + UUID.randomUUID();
+    }
+
+    @TestConfiguration
+    static class ConnectionSamplingConfiguration {
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource, ShardDataSources shards) {
+            HikariDataSource directoryShard = (HikariDataSource) shards.get(ProductDirectory.DIRECTORY_SHARD);
+            return new JdbcTemplate(dataSource) {
+                @Override
+                protected void applyStatementSettings(Statement statement) throws SQLException {
+                    super.applyStatementSettings(statement);
+                    PEAK_DIRECTORY_CONNECTIONS.accumulateAndGet(
+                            directoryShard.getHikariPoolMXBean().getActiveConnections(), Math::max);
+                }
+            };
+        }
+    }
+}
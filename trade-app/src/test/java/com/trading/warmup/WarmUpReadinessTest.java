@@ -0,0 +1,63 @@
+package com.trading.warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs the real warm-up with a short time budget and a compilation check that can never pass, so
+ * it ends on the time budget, and watches the readiness group while it does.
+ */
+@SpringBootTest(properties = {
+        "trading.warmup.enabled=true",
+        "trading.warmup.max-duration=3s",
+        "trading.warmup.max-iterations=2147483647",
+        "trading.warmup.min-iterations=2147483647"})
+@AutoConfigureMockMvc
+class WarmUpReadinessTest {
+
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void readinessStaysOutOfServiceUntilTheWarmUpTimesOut() throws Exception {
+        MvcResult warming = readiness();
+        assertThat(warming.getResponse().getStatus()).isEqualTo(503);
+        JsonNode health = objectMapper.readTree(warming.getResponse().getContentAsString());
+        assertThat(health.path("status").asText()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(health.path("components").path("warmUp").path("details").path("state").asText())
+                .isIn("PENDING", "RUNNING");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        MvcResult ready = readiness();
+        while (ready.getResponse().getStatus() != 200 && System.currentTimeMillis() < deadline) {
+            health = objectMapper.readTree(ready.getResponse().getContentAsString());
+            assertThat(health.path("status").asText()).isEqualTo("OUT_OF_SERVICE");
+            Thread.sleep(100);
+            ready = readiness();
+        }
+
+        assertThat(ready.getResponse().getStatus()).isEqualTo(200);
+        JsonNode warmUp = objectMapper.readTree(ready.getResponse().getContentAsString()).path("components").path("warmUp");
+        assertThat(warmUp.path("status").asText()).isEqualTo("UP");
+        assertThat(warmUp.path("details").path("reason").asText()).isEqualTo("time budget reached");
+        assertThat(warmUp.path("details").path("iterations").asInt()).isPositive();
+    }
+
+    private MvcResult readiness() throws Exception {
+        return mockMvc.perform(get("/actuator/health/readiness")).andReturn();
+    }
+}
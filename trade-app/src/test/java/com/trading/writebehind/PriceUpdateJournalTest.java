@@ -0,0 +1,113 @@
+package com.trading.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceUpdateJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversUnflushedUpdatesInWriteOrder() throws IOException {
+        PriceUpdateJournal journal = new PriceUpdateJournal(directory);
+        journal.recover();
+        journal.rotate();
+        journal.sync(journal.append(new PriceUpdate(1L, new BigDecimal("10.50"), null)));
+        journal.rotate();
+        journal.sync(journal.append(new PriceUpdate(2L, null, 7)));
+        journal.sync(journal.append(new PriceUpdate(1L, new BigDecimal("11.00"), 3)));
+        // Crash: neither flushed nor closed.
+
+        List<PriceUpdate> recovered = new PriceUpdateJournal(directory).recover();
+
+        assertThat(recovered).containsExactly(
+                new PriceUpdate(1L, new BigDecimal("10.50"), null),
+                new PriceUpdate(2L, null, 7),
+                new PriceUpdate(1L, new BigDecimal("11.00"), 3));
+    }
+
+    @Test
+    void skipsTornAndCorruptRecords() throws IOException {
+        PriceUpdateJournal journal = new PriceUpdateJournal(directory);
+        journal.recover();
+        journal.rotate();
+        journal.sync(journal.append(new PriceUpdate(1L, new BigDecimal("10.50"), null)));
+        journal.close();
+        Path segment = onlySegment();
+        Files.writeString(segment, "2,99.00,,deadbeef\n3,12.0", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<PriceUpdate> recovered = new PriceUpdateJournal(directory).recover();
+
+        assertThat(recovered).containsExactly(new PriceUpdate(1L, new BigDecimal("10.50"), null));
+    }
+
+    @Test
+    void recoveredSegmentsAreSealedAndDeletedAfterFlush() throws IOException {
+        PriceUpdateJournal journal = new PriceUpdateJournal(directory);
+        journal.recover();
+        journal.rotate();
+        journal.sync(journal.append(new PriceUpdate(1L, BigDecimal.ONE, null)));
+        journal.close();
+
+        PriceUpdateJournal restarted = new PriceUpdateJournal(directory);
+        assertThat(restarted.recover()).hasSize(1);
+        List<Path> sealed = restarted.rotate();
+        restarted.sync(restarted.append(new PriceUpdate(2L, BigDecimal.TEN, null)));
+        restarted.delete(sealed);
+
+        assertThat(sealed).hasSize(1);
+        assertThat(sealed.get(0)).doesNotExist();
+        assertThat(new PriceUpdateJournal(directory).recover()).containsExactly(new PriceUpdate(2L, BigDecimal.TEN, null));
+    }
+
+    @Test
+    void newSegmentsContinueAfterRecoveredOnes() throws IOException {
+        PriceUpdateJournal journal = new PriceUpdateJournal(directory);
+        journal.recover();
+        journal.rotate();
+        journal.rotate();
+        journal.sync(journal.append(new PriceUpdate(1L, BigDecimal.ONE, null)));
+        journal.close();
+
+        PriceUpdateJournal restarted = new PriceUpdateJournal(directory);
+        restarted.recover();
+        restarted.rotate();
+        restarted.sync(restarted.append(new PriceUpdate(2L, BigDecimal.TEN, null)));
+        restarted.close();
+
+        assertThat(new PriceUpdateJournal(directory).recover())
+                .containsExactly(new PriceUpdate(1L, BigDecimal.ONE, null), new PriceUpdate(2L, BigDecimal.TEN, null));
+    }
+
+    @Test
+    void deadLetteredUpdatesAreNotReplayed() throws IOException {
+        PriceUpdateJournal journal = new PriceUpdateJournal(directory);
+        journal.recover();
+        journal.rotate();
+        journal.deadLetter(new PriceUpdate(1L, new BigDecimal("123456789.99"), null));
+        journal.close();
+
+        assertThat(new PriceUpdateJournal(directory).recover()).isEmpty();
+        assertThat(directory.resolve("dead-letter.log")).content().startsWith("1,123456789.99,,");
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(file -> file.getFileName().toString().startsWith("journal-")).toList();
+            assertThat(segments).hasSize(1);
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.trading.writebehind;
+
+import com.trading.cache.ProductChangePublisher;
+import com.trading.reservation.ReservationLedger;
+import com.trading.sharding.ShardMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class PriceUpdateQueueTest {
+
+    @TempDir
+    Path journalDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ReservationLedger reservationLedger;
+    private PriceUpdateQueue queue;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/common/V1__create_trading_products.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO trading_products (id, product_name, description, category, price, "
+                    + "quantity, status, created_at, updated_at) VALUES (?, ?, 'd', 'STOCKS', 1.00, 1, 'ACTIVE', "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", id, "P" + id);
+        }
+
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setJournalDir(journalDir.toString());
+        properties.setFlushInterval(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        reservationLedger = mock(ReservationLedger.class);
+        queue = queue(properties);
+        queue.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void updateTheDatabaseRejectsIsDeadLetteredWithoutBlockingTheBatch() throws Exception {
+        queue.submit(new PriceUpdate(1L, new BigDecimal("25.50"), null));
+        queue.submit(new PriceUpdate(2L, new BigDecimal("123456789.99"), null));
+        queue.submit(new PriceUpdate(3L, null, 42));
+
+        queue.stop();
+
+        assertThat(price(1)).isEqualByComparingTo("25.50");
+        assertThat(price(2)).isEqualByComparingTo("1.00");
+        assertThat(quantity(3)).isEqualTo(42);
+        assertThat(queue.pendingCount()).isZero();
+        assertThat(meterRegistry.counter("trading.writebehind.dead-lettered").count()).isEqualTo(1);
+        assertThat(journalDir.resolve("dead-letter.log")).content().startsWith("2,123456789.99,,");
+        assertThat(new PriceUpdateJournal(journalDir).recover()).isEmpty();
+    }
+
+    @Test
+    void flushDeletesSealedSegments() throws Exception {
+        queue.submit(new PriceUpdate(1L, new BigDecimal("2.00"), null));
+
+        queue.stop();
+
+        try (Stream<Path> files = Files.list(journalDir)) {
+            // Only the empty segment opened by the last rotation remains.
+            assertThat(files.filter(file -> file.getFileName().toString().startsWith("journal-"))).hasSize(1);
+        }
+        assertThat(price(1)).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void flushReportsQuantityChangesToTheLedgerInsideTheTransaction() throws Exception {
+        List<Long> changed = new ArrayList<>();
+        doAnswer(invocation -> {
+            // The ledger defers its reload to after commit only when called inside the transaction.
+            assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isTrue();
+            changed.add(invocation.getArgument(0));
+            return null;
+        }).when(reservationLedger).quantityChanged(anyLong());
+
+        queue.submit(new PriceUpdate(1L, new BigDecimal("3.00"), null));
+        queue.submit(new PriceUpdate(2L, null, 7));
+        queue.stop();
+
+        assertThat(changed).containsExactly(2L);
+    }
+
+    @Test
+    void coalescedUpdatesKeepEachFieldsLatestValue() throws Exception {
+        queue.submit(new PriceUpdate(1L, new BigDecimal("4.00"), null));
+        queue.submit(new PriceUpdate(1L, null, 9));
+        queue.submit(new PriceUpdate(1L, new BigDecimal("4.50"), null));
+
+        queue.stop();
+
+        assertThat(price(1)).isEqualByComparingTo("4.50");
+        assertThat(quantity(1)).isEqualTo(9);
+        assertThat(meterRegistry.counter("trading.writebehind.coalesced").count()).isEqualTo(2);
+    }
+
+    @Test
+    void recoveryMergesJournaledUpdatesFieldByField(@TempDir Path crashedJournalDir) throws Exception {
+        PriceUpdateJournal journal = new PriceUpdateJournal(crashedJournalDir);
+        journal.recover();
+        journal.rotate();
+        journal.sync(journal.append(new PriceUpdate(2L, new BigDecimal("6.00"), null)));
+        journal.sync(journal.append(new PriceUpdate(2L, null, 11)));
+        journal.close();
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setJournalDir(crashedJournalDir.toString());
+        properties.setFlushInterval(Duration.ofHours(1));
+        PriceUpdateQueue recovering = queue(properties);
+
+        recovering.start();
+        recovering.stop();
+
+        assertThat(price(2)).isEqualByComparingTo("6.00");
+        assertThat(quantity(2)).isEqualTo(11);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PriceUpdateQueue queue(WriteBehindProperties properties) {
+        return new PriceUpdateQueue(properties, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(database)), meterRegistry,
+                mock(ObjectProvider.class), mock(ProductChangePublisher.class), reservationLedger);
+    }
+
+    private BigDecimal price(long id) {
+        return jdbcTemplate.queryForObject("SELECT price FROM trading_products WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private Integer quantity(long id) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM trading_products WHERE id = ?", Integer.class, id);
+    }
+}